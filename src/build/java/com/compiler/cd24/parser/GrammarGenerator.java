@@ -0,0 +1,287 @@
+package com.compiler.cd24.parser;
+
+import com.compiler.cd24.lexer.Tokeniser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GrammarGenerator class
+ *
+ * This class reads the left factored grammar in Documentation/Grammar.txt,
+ * computes the FIRST and FOLLOW set of every nonterminal, and writes the FIRST
+ * sets the Parser looks ahead with as the GrammarSets class. It also checks
+ * which rules are LL(1), by whether the tokens that predict each of a rule's
+ * productions overlap, and lists the ones that are not in GrammarSets' class
+ * comment, as those are the rules the Parser must decide by hand.
+ *
+ * Maven builds and runs it in the generate-sources phase, writing GrammarSets
+ * to target/generated-sources/grammar, so the sets are made from the grammar
+ * on every build and the Parser's lookahead cannot drift from it. Change the
+ * USED list below to generate the FIRST set of another nonterminal.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+final class GrammarGenerator {
+    // INFO: The nonterminals whose FIRST sets the Parser uses
+    private static final List<String> USED = List.of("<stats>", "<strstat>", "<iostat>", "<logop>", "<relop>");
+    // INFO: Nonterminals, terminal spellings such as <= and (, and escaped brackets
+    private static final Pattern SYMBOL = Pattern.compile("<[a-z]+>|\\\\[\\[\\]]|[^\\s<]+|<\\S*");
+    private static final Pattern COMMENT = Pattern.compile("<!--.*?-->");
+    private static final String EPSILON = "ε";
+    // INFO: Names the grammar leaves undefined, which the Scanner recognises
+    private static final Map<String, Tokeniser.TokenType> LEXICAL_NAMES = Map.of(
+            "<id>", Tokeniser.TokenType.TIDEN,
+            "<structid>", Tokeniser.TokenType.TIDEN,
+            "<typeid>", Tokeniser.TokenType.TIDEN,
+            "<intlit>", Tokeniser.TokenType.TILIT,
+            "<reallit>", Tokeniser.TokenType.TFLIT,
+            "<string>", Tokeniser.TokenType.TSTRG);
+
+    // INFO: Productions by nonterminal, in the order the grammar defines them
+    private final Map<String, List<List<String>>> rules = new LinkedHashMap<>();
+    private final Map<String, EnumSet<Tokeniser.TokenType>> first = new LinkedHashMap<>();
+    private final Map<String, EnumSet<Tokeniser.TokenType>> follow = new LinkedHashMap<>();
+    private final Set<String> nullable = new HashSet<>();
+    private final List<String> conflicts = new ArrayList<>();
+
+    private GrammarGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: GrammarGenerator <grammar> <output>");
+            System.exit(1);
+        }
+        Path output = Path.of(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.writeString(output, generate(Path.of(args[0])), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param grammar The grammar file.
+     * @return The source of the GrammarSets class for the grammar.
+     */
+    static String generate(Path grammar) throws IOException {
+        GrammarGenerator generator = new GrammarGenerator();
+        generator.read(Files.readAllLines(grammar, StandardCharsets.UTF_8));
+        generator.computeFirst();
+        generator.computeFollow();
+        generator.findConflicts();
+        return generator.generate();
+    }
+
+    private void read(List<String> lines) {
+        for (String line : lines) {
+            line = COMMENT.matcher(line).replaceAll("").trim();
+            int separator = line.indexOf("::=");
+            if (separator < 0) {
+                continue;
+            }
+            String nonterminal = line.substring(0, separator).trim();
+            List<List<String>> productions = rules.computeIfAbsent(nonterminal, key -> new ArrayList<>());
+            List<String> production = new ArrayList<>();
+            Matcher matcher = SYMBOL.matcher(line.substring(separator + 3));
+            while (matcher.find()) {
+                String symbol = matcher.group();
+                if (symbol.equals("|")) {
+                    productions.add(production);
+                    production = new ArrayList<>();
+                } else if (!symbol.equals(EPSILON)) {
+                    production.add(symbol.startsWith("\\") ? symbol.substring(1) : symbol);
+                }
+            }
+            productions.add(production);
+        }
+        for (String nonterminal : rules.keySet()) {
+            first.put(nonterminal, EnumSet.noneOf(Tokeniser.TokenType.class));
+            follow.put(nonterminal, EnumSet.noneOf(Tokeniser.TokenType.class));
+        }
+    }
+
+    /**
+     * @return The token a terminal stands for.
+     * @throws IllegalArgumentException If the symbol is not a known terminal.
+     */
+    private Tokeniser.TokenType terminal(String symbol) {
+        Tokeniser.TokenType type = LEXICAL_NAMES.get(symbol);
+        if (type == null) {
+            type = Tokeniser.getKeywordTokenType(symbol);
+        }
+        if (type == null) {
+            type = Tokeniser.getOperatorTokenType(symbol);
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown grammar symbol " + symbol);
+        }
+        return type;
+    }
+
+    /**
+     * Adds the FIRST set of a sequence of symbols to a set.
+     *
+     * @return true if the whole sequence can derive ε.
+     */
+    private boolean addFirst(List<String> symbols, int from, Set<Tokeniser.TokenType> into) {
+        for (int i = from; i < symbols.size(); i++) {
+            String symbol = symbols.get(i);
+            if (!rules.containsKey(symbol)) {
+                into.add(terminal(symbol));
+                return false;
+            }
+            into.addAll(first.get(symbol));
+            if (!nullable.contains(symbol)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void computeFirst() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, List<List<String>>> rule : rules.entrySet()) {
+                EnumSet<Tokeniser.TokenType> set = first.get(rule.getKey());
+                int size = set.size();
+                for (List<String> production : rule.getValue()) {
+                    if (addFirst(production, 0, set) && nullable.add(rule.getKey())) {
+                        changed = true;
+                    }
+                }
+                changed |= set.size() != size;
+            }
+        }
+    }
+
+    private void computeFollow() {
+        follow.values().iterator().next().add(Tokeniser.TokenType.TTEOF);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, List<List<String>>> rule : rules.entrySet()) {
+                for (List<String> production : rule.getValue()) {
+                    for (int i = 0; i < production.size(); i++) {
+                        EnumSet<Tokeniser.TokenType> set = follow.get(production.get(i));
+                        if (set == null) {
+                            continue;
+                        }
+                        int size = set.size();
+                        if (addFirst(production, i + 1, set)) {
+                            set.addAll(follow.get(rule.getKey()));
+                        }
+                        changed |= set.size() != size;
+                    }
+                }
+            }
+        }
+    }
+
+    private void findConflicts() {
+        for (Map.Entry<String, List<List<String>>> rule : rules.entrySet()) {
+            EnumSet<Tokeniser.TokenType> predicted = EnumSet.noneOf(Tokeniser.TokenType.class);
+            EnumSet<Tokeniser.TokenType> overlap = EnumSet.noneOf(Tokeniser.TokenType.class);
+            for (List<String> production : rule.getValue()) {
+                EnumSet<Tokeniser.TokenType> predicts = EnumSet.noneOf(Tokeniser.TokenType.class);
+                if (addFirst(production, 0, predicts)) {
+                    predicts.addAll(follow.get(rule.getKey()));
+                }
+                for (Tokeniser.TokenType type : predicts) {
+                    if (!predicted.add(type)) {
+                        overlap.add(type);
+                    }
+                }
+            }
+            if (!overlap.isEmpty()) {
+                conflicts.add(rule.getKey() + " on " + join(overlap));
+            }
+        }
+    }
+
+    private static String join(Set<Tokeniser.TokenType> types) {
+        StringBuilder builder = new StringBuilder();
+        for (Tokeniser.TokenType type : types) {
+            builder.append(builder.length() == 0 ? "" : ", ").append(type);
+        }
+        return builder.toString();
+    }
+
+    private String generate() {
+        StringBuilder out = new StringBuilder();
+        out.append("package com.compiler.cd24.parser;\n\n");
+        out.append("import com.compiler.cd24.lexer.Tokeniser;\n");
+        out.append("import java.util.EnumSet;\n\n");
+        out.append("/**\n");
+        out.append(" * GrammarSets class\n");
+        out.append(" *\n");
+        out.append(" * Generated by GrammarGenerator from Documentation/Grammar.txt. Do not edit.\n");
+        out.append(" *\n");
+        out.append(" * The FIRST sets the Parser looks ahead with. A FIRST set does not hold ε,\n");
+        out.append(" * but is marked nullable if the nonterminal can derive it.\n");
+        out.append(" *\n");
+        out.append(" * These rules are not LL(1), as more than one production is predicted by:\n");
+        for (String conflict : conflicts) {
+            out.append(" * ").append(conflict).append("\n");
+        }
+        out.append(" */\n");
+        out.append("final class GrammarSets {\n");
+        out.append("    private GrammarSets() {\n");
+        out.append("    }\n");
+        for (String nonterminal : USED) {
+            if (!rules.containsKey(nonterminal)) {
+                throw new IllegalArgumentException("The grammar does not define " + nonterminal);
+            }
+            String name = nonterminal.substring(1, nonterminal.length() - 1).toUpperCase();
+            out.append("\n");
+            if (nullable.contains(nonterminal)) {
+                out.append("    // INFO: ").append(nonterminal).append(" is nullable\n");
+            }
+            constant(out, "FIRST_" + name, first.get(nonterminal));
+        }
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private static void constant(StringBuilder out, String name, Set<Tokeniser.TokenType> types) {
+        out.append("    static final EnumSet<Tokeniser.TokenType> ").append(name).append(" = ");
+        if (types.isEmpty()) {
+            out.append("EnumSet.noneOf(Tokeniser.TokenType.class);\n");
+            return;
+        }
+        out.append("EnumSet.of(");
+        int column = 8;
+        boolean firstType = true;
+        for (Tokeniser.TokenType type : types) {
+            String item = "Tokeniser.TokenType." + type;
+            if (firstType) {
+                out.append("\n            ");
+                column = 12;
+            } else if (column + item.length() + 2 > 118) {
+                out.append(",\n            ");
+                column = 12;
+            } else {
+                out.append(", ");
+                column += 2;
+            }
+            out.append(item);
+            column += item.length();
+            firstType = false;
+        }
+        out.append(");\n");
+    }
+}
@@ -7,6 +7,7 @@ import com.compiler.cd24.parser.ParseException;
 import com.compiler.cd24.semantic.SemanticAnalyser;
 import com.compiler.cd24.semantic.SymbolTable;
 import com.compiler.cd24.codegen.CodeGenerator;
+import com.compiler.cd24.util.Ast;
 import com.compiler.cd24.util.Node;
 import com.compiler.cd24.util.OutputController;
 import java.util.ArrayList;
@@ -52,8 +53,12 @@ public class A3 {
         Parser parser = new Parser(scanner, outputController);
         semanticAnalyser = new SemanticAnalyser();
 
-        run(parser);
-        outputController.closeOutput();
+        try {
+            run(parser);
+        } finally {
+            // INFO: Writes out the rest of the listing even if compilation fails
+            outputController.closeOutput();
+        }
         printFormattedOutput();
     }
 
@@ -66,16 +71,21 @@ public class A3 {
      */
     private static void run(Parser parser) throws ParseException, IOException {
         Node root = parser.parse();
+        // INFO: Lazy function bodies must be parsed before the errors are checked
+        parser.forceBodies();
         SymbolTable symbolTable = null;
+        Ast ast = null;
         if (root != null) {
             if (!outputController.hasErrors()) {
+                // INFO: Both later phases walk the flattened tree
+                ast = Ast.of(root);
                 semanticAnalyser = new SemanticAnalyser(parser.getSymbolTable(), outputController);
-                symbolTable = semanticAnalyser.analyse(root);
+                symbolTable = semanticAnalyser.analyse(ast);
             } else {
                 System.out.println("Compiler stopped at end parse stage");
             }
             if (!outputController.hasErrors()) {
-                CodeGenerator codeGenerator = new CodeGenerator(root, symbolTable, outputController);
+                CodeGenerator codeGenerator = new CodeGenerator(ast, symbolTable, outputController);
                 codeGenerator.generateCode();
             } else {
                 System.out.println("Compiler stopped at end semantic analysis stage");
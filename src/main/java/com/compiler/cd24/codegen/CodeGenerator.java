@@ -2,8 +2,11 @@ package com.compiler.cd24.codegen;
 
 import com.compiler.cd24.semantic.SymbolTable;
 import com.compiler.cd24.semantic.SymbolTableEntry;
+import com.compiler.cd24.util.Ast;
+import com.compiler.cd24.util.AstCursor;
 import com.compiler.cd24.util.DataType;
 import com.compiler.cd24.util.Node;
+import com.compiler.cd24.util.NodeKind;
 import com.compiler.cd24.util.OutputController;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -13,8 +16,10 @@ import java.util.Map;
 import java.util.HashMap;
 
 public class CodeGenerator {
+    private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000,
+            1000000000 };
 
-    private Node rootNode;
+    private Ast ast;
     private SymbolTable symbolTable;
     private List<String> code;
     // TODO: add in constants
@@ -30,7 +35,17 @@ public class CodeGenerator {
      * @param symbolTable The symbol table containing variable information.
      */
     public CodeGenerator(Node rootNode, SymbolTable symbolTable, OutputController outputController) {
-        this.rootNode = rootNode;
+        this(Ast.of(rootNode), symbolTable, outputController);
+    }
+
+    /**
+     * Constructor for CodeGenerator.
+     *
+     * @param ast         The AST, as copied into an Ast arena.
+     * @param symbolTable The symbol table containing variable information.
+     */
+    public CodeGenerator(Ast ast, SymbolTable symbolTable, OutputController outputController) {
+        this.ast = ast;
         this.symbolTable = symbolTable;
         this.code = new ArrayList<>();
         this.programCounter = 10000;
@@ -45,61 +60,58 @@ public class CodeGenerator {
      * @throws IOException If an I/O error occurs.
      */
     public void generateCode() throws IOException {
-        generateNode(rootNode);
+        generateNode(ast.root());
         writeInstruction("HALT");
         writeToFile();
         System.out.println(outputController.getOutputFileName().replace("./", "") + " compiled successfully");
     }
 
     /**
-     * Recursively generates code for a given AST node.
+     * Generates code for the subtree below a given AST node, walking it in
+     * pre-order.
      *
-     * @param node The current AST node.
+     * @param root The handle of the subtree's root node.
      * @throws IOException If an I/O error occurs.
      */
-    private void generateNode(Node node) throws IOException {
-        if (node == null) {
-            return;
-        }
-
-        switch (node.getType()) {
-            case "NPROG":
-                for (Node child : node.getChildren()) {
-                    generateNode(child);
-                }
-                break;
-            case "NSDLST":
-                handleVarDeclaration(node);
-                break;
-            case "NASGN":
-                handleAssignment(node);
-                break;
-            case "NINPUT":
-                handleInput(node);
-                break;
-            case "NPRINT":
-                handlePrint(node);
-                break;
-            case "NPLEQ":
-                handleCompoundAssignment(node, "ADD");
-                break;
-            case "NMNEQ":
-                handleCompoundAssignment(node, "SUB");
-                break;
-            case "NSTEQ":
-                handleCompoundAssignment(node, "MUL");
-                break;
-            case "NDVEQ":
-                handleCompoundAssignment(node, "DIV");
-                break;
-            case "NIFTH":
-                handleIF(node);
-            default:
-                for (Node child : node.getChildren()) {
-                    generateNode(child);
-                }
-                break;
-        }
+    private void generateNode(int root) throws IOException {
+        AstCursor cursor = new AstCursor(ast, root);
+        boolean enterChildren;
+        do {
+            int node = cursor.node();
+            // INFO: Handled statements generate their own children
+            enterChildren = false;
+            switch (ast.kind(node)) {
+                case NSDLST:
+                    handleVarDeclaration(node);
+                    break;
+                case NASGN:
+                    handleAssignment(node);
+                    break;
+                case NINPUT:
+                    handleInput(node);
+                    break;
+                case NPRINT:
+                    handlePrint(node);
+                    break;
+                case NPLEQ:
+                    handleCompoundAssignment(node, "ADD");
+                    break;
+                case NMNEQ:
+                    handleCompoundAssignment(node, "SUB");
+                    break;
+                case NSTEQ:
+                    handleCompoundAssignment(node, "MUL");
+                    break;
+                case NDVEQ:
+                    handleCompoundAssignment(node, "DIV");
+                    break;
+                case NIFTH:
+                    handleIF(node);
+                default:
+                    enterChildren = true;
+                    break;
+            }
+        } while (cursor.next(enterChildren));
     }
 
     /**
@@ -110,7 +122,7 @@ public class CodeGenerator {
      * @param node The variable declaration AST node.
      * @throws IOException If an I/O error occurs.
      */
-    private void handleVarDeclaration(Node node) throws IOException {
+    private void handleVarDeclaration(int node) throws IOException {
         ArrayList<Integer> offsetList = processNSDLST(node);
         loadInteger(offsetList.size());
         writeInstruction("ALLOC");
@@ -131,10 +143,9 @@ public class CodeGenerator {
         }
     }
 
-    private void handleInput(Node node) {
-        List<Node> children = node.getChildren();
-        Node varNode = children.get(0);
-        int offset = symbolTable.find(varNode.getValue()).getOffset();
+    private void handleInput(int node) {
+        int varNode = ast.child(node, 0);
+        int offset = symbolTable.find(ast.nameId(varNode)).getOffset();
         writeInstruction("LA1");
         writePaddedInstruction(offset, 4);
         writeInstruction("READI");
@@ -142,10 +153,9 @@ public class CodeGenerator {
 
     }
 
-    private void handleIF(Node node) throws IOException {
-        List<Node> children = node.getChildren();
-        Node expressionNode = children.get(0);
-        Node actionNode = children.get(1);
+    private void handleIF(int node) throws IOException {
+        int expressionNode = ast.child(node, 0);
+        int actionNode = ast.child(node, 1);
         writeInstruction("LA1");
         int beforeLoop = programCounter;
         writePaddedInstruction(programCounter, 4);
@@ -204,10 +214,9 @@ public class CodeGenerator {
      * @param node The assignment AST node.
      * @throws IOException If an I/O error occurs.
      */
-    private void handleAssignment(Node node) throws IOException {
-        List<Node> children = node.getChildren();
-        Node child1 = children.get(0);
-        Node child2 = children.get(1);
+    private void handleAssignment(int node) throws IOException {
+        int child1 = ast.child(node, 0);
+        int child2 = ast.child(node, 1);
         handleLoadAddress(child1);
         handleExpression(child2);
         writeInstruction("ST");
@@ -219,9 +228,8 @@ public class CodeGenerator {
      * @param node The LHS node representing the variable.
      * @throws IOException If an I/O error occurs.
      */
-    private void handleLoadAddress(Node node) throws IOException {
-        String varName = node.getValue();
-        int offset = symbolTable.getOffset(varName);
+    private void handleLoadAddress(int node) throws IOException {
+        int offset = symbolTable.getOffset(ast.nameId(node));
         writeInstruction("LA1");
         writePaddedInstruction(offset, 4);
     }
@@ -233,62 +241,61 @@ public class CodeGenerator {
      * @param node The expression node.
      * @throws IOException If an I/O error occurs.
      */
-    private void handleExpression(Node node) throws IOException {
-        switch (node.getType()) {
-            case "NADD":
+    private void handleExpression(int node) throws IOException {
+        switch (ast.kind(node)) {
+            case NADD:
                 handleArithmetic(node, "ADD");
                 break;
-            case "NSUB":
+            case NSUB:
                 handleArithmetic(node, "SUB");
                 break;
-            case "NMUL":
+            case NMUL:
                 handleArithmetic(node, "MUL");
                 break;
-            case "NDIV":
+            case NDIV:
                 handleArithmetic(node, "DIV");
                 break;
-            case "NILIT":
+            case NILIT:
                 handleIntegerLiteral(node);
                 break;
-            case "NFLIT":
+            case NFLIT:
                 handleFloatLiteral(node);
                 break;
-            case "NTRUE":
+            case NTRUE:
                 handleTrue(node);
                 break;
-            case "NFALS":
+            case NFALS:
                 handleFalse(node);
                 break;
-            case "NGRT":
+            case NGRT:
                 handleComparison(node, "GT");
                 break;
-            case "NLSS":
+            case NLSS:
                 handleComparison(node, "LT");
                 break;
-            case "NEQL":
+            case NEQL:
                 handleComparison(node, "EQ");
                 break;
-            case "NNEQ":
+            case NNEQ:
                 handleComparison(node, "NE");
                 break;
-            case "NLEQ":
+            case NLEQ:
                 handleComparison(node, "LE");
                 break;
-            case "NGEQ":
+            case NGEQ:
                 handleComparison(node, "GE");
                 break;
-            case "NSIMV":
+            case NSIMV:
                 handleVariable(node);
                 break;
             default:
-                throw new UnsupportedOperationException("Unsupported expression type: " + node.getType());
+                throw new UnsupportedOperationException("Unsupported expression type: " + ast.type(node));
         }
     }
 
-    private void handlePrint(Node node) {
-        Node variableNode = node.getChildren().get(0);
-        String variableName = variableNode.getValue();
-        int offset = symbolTable.getOffset(variableName);
+    private void handlePrint(int node) {
+        int variableNode = ast.child(node, 0);
+        int offset = symbolTable.getOffset(ast.nameId(variableNode));
         writeInstruction("LV1");
         writePaddedInstruction(offset, 4);
         writeInstruction("VALPR");
@@ -301,74 +308,71 @@ public class CodeGenerator {
      * @param node The variable node representing the variable.
      * @throws IOException If an I/O error occurs.
      */
-    private void handleVariable(Node node) throws IOException {
-        String varName = node.getValue();
-        int offset = symbolTable.getOffset(varName);
+    private void handleVariable(int node) throws IOException {
+        int offset = symbolTable.getOffset(ast.nameId(node));
         String baseRegister = "LV1";
         writeInstruction(baseRegister);
         writePaddedInstruction(offset, 4);
     }
 
-    private void handleFloatLiteral(Node node) {
-        double value = Double.parseDouble(node.getValue());
+    private void handleFloatLiteral(int node) {
+        double value = ast.floatValue(node);
         loadFloat(value);
     }
 
-    private void handleFalse(Node node) {
+    private void handleFalse(int node) {
         writeInstruction("FALSE");
     }
 
-    private void handleTrue(Node node) {
+    private void handleTrue(int node) {
         writeInstruction("TRUE");
     }
 
-    private void handleIntegerLiteral(Node node) {
-        int value = Integer.parseInt(node.getValue());
+    private void handleIntegerLiteral(int node) {
+        int value = (int) ast.integerValue(node);
         loadInteger(value);
     }
 
-    private void handleArithmetic(Node node, String operation) throws IOException {
-        List<Node> children = node.getChildren();
-        Node left = children.get(0);
-        Node right = children.get(1);
+    private void handleArithmetic(int node, String operation) throws IOException {
+        int left = ast.child(node, 0);
+        int right = ast.child(node, 1);
         handleExpression(left);
         handleExpression(right);
         writeInstruction(operation);
     }
 
-    private void handleCompoundAssignment(Node node, String operation) {
-        List<Node> children = node.getChildren();
-        Node left = children.get(0);
-        int offset = symbolTable.find(left.getValue()).getOffset();
-        Node right = children.get(1);
-        SymbolTableEntry rightEntry = symbolTable.find(right.getValue());
+    private void handleCompoundAssignment(int node, String operation) {
+        int left = ast.child(node, 0);
+        int offset = symbolTable.find(ast.nameId(left)).getOffset();
+        int right = ast.child(node, 1);
+        SymbolTableEntry rightEntry = symbolTable.find(ast.nameId(right));
         DataType type = rightEntry.getDataType();
 
         writeInstruction("LA1");
         writePaddedInstruction(offset, 4);
         writeInstruction("LV1");
         writePaddedInstruction(offset, 4);
-        if (right.getType().equals("NFLIT") || type == DataType.FLOAT) {
+        if (ast.kind(right) == NodeKind.NFLIT || type == DataType.FLOAT) {
             if (type != null) {
                 writeInstruction("LV1");
                 writePaddedInstruction(rightEntry.getOffset(), 4);
             } else {
-                loadFloat(Double.valueOf(right.getValue()));
+                loadFloat(ast.floatValue(right));
             }
-        } else if (right.getType().equals("NILIT") || type == DataType.INTEGER) {
+        } else if (ast.kind(right) == NodeKind.NILIT || type == DataType.INTEGER) {
             if (type != null) {
 
                 writeInstruction("LV1");
                 writePaddedInstruction(rightEntry.getOffset(), 4);
             } else {
-                loadInteger(Integer.valueOf(right.getValue()));
+                loadInteger((int) ast.integerValue(right));
             }
         }
         writeInstruction(operation);
         writeInstruction("ST");
     }
 
-    private void handleComparison(Node node, String operation) throws IOException {
+    private void handleComparison(int node, String operation) throws IOException {
         handleArithmetic(node, "SUB");
         writeInstruction(operation);
     }
@@ -400,11 +404,8 @@ public class CodeGenerator {
             throw new IllegalArgumentException("Value must be a 16-bit signed integer (-32768 to 32767).");
         }
 
-        String binaryString = String.format("%16s", Integer.toBinaryString(decimal & 0xFFFF)).replace(' ', '0');
-        String msbBinary = binaryString.substring(0, 8); // INFO: Most significant byte (first 8 bits)
-        String lsbBinary = binaryString.substring(8, 16); // INFO: Least significant byte (last 8 bits)
-        int msb = Integer.parseInt(msbBinary, 2); // INFO: Convert MSB to decimal
-        int lsb = Integer.parseInt(lsbBinary, 2); // INFO: Convert LSB to decimal
+        int msb = (decimal >> 8) & 0xFF; // INFO: Most significant byte
+        int lsb = decimal & 0xFF; // INFO: Least significant byte
 
         writeInstruction("LH");
         writeInstruction(String.format("%02d", msb));
@@ -416,25 +417,25 @@ public class CodeGenerator {
             throw new IllegalArgumentException("Value must be a 16-bit signed integer (-32768 to 32767).");
         }
 
+        // INFO: The shortest decimal form of the value, e.g. 3.25 loads as 25 / 100 + 3
         String valueStr = String.valueOf(decimal);
-
-        String[] parts = valueStr.split("\\.");
+        int dot = valueStr.indexOf('.');
+        int integerEnd = dot < 0 ? valueStr.length() : dot;
         int integerPart;
         try {
-            integerPart = Integer.parseInt(parts[0]);
+            integerPart = Integer.parseInt(valueStr, 0, integerEnd, 10);
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid integer part: " + parts[0], e);
+            throw new IllegalArgumentException("Invalid integer part: " + valueStr.substring(0, integerEnd), e);
         }
 
         int fractionalPart = 0;
-        String[] divisorString = String.valueOf(Math.pow(10, parts[1].length())).split("\\.");
-        int divisor = Integer.parseInt(divisorString[0]);
-        if (parts.length > 1) {
-            try {
-                fractionalPart = Integer.parseInt(parts[1]);
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Invalid fractional part: " + parts[1], e);
-            }
+        int fractionDigits = valueStr.length() - dot - 1;
+        // INFO: Divisors past 10^9 do not fit in an int, and loadInteger rejects them either way
+        int divisor = fractionDigits < POWERS_OF_TEN.length ? POWERS_OF_TEN[fractionDigits] : Integer.MAX_VALUE;
+        try {
+            fractionalPart = Integer.parseInt(valueStr, dot + 1, valueStr.length(), 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid fractional part: " + valueStr.substring(dot + 1), e);
         }
 
         loadInteger(fractionalPart);
@@ -566,30 +567,28 @@ public class CodeGenerator {
     /**
      * Recursively processes the NSDLST subtree and handles NSDECL nodes.
      *
-     * @param node The current AST node to process.
+     * @param node The handle of the current AST node to process.
      * @return An ArrayList of all variable offsets
      * @throws IOException If an I/O error occurs.
      */
-    private ArrayList<Integer> processNSDLST(Node node) throws IOException {
+    private ArrayList<Integer> processNSDLST(int node) throws IOException {
         ArrayList<Integer> totalVariables = new ArrayList<>();
 
-        if (node.getType().equals("NSDLST")) {
-            List<Node> children = node.getChildren();
-
-            for (Node child : children) {
+        if (ast.kind(node) == NodeKind.NSDLST) {
+            for (int child = ast.firstChild(node); child != Ast.NONE; child = ast.nextSibling(child)) {
                 // INFO: If the child is another NSDLST, recurse
-                if (child.getType().equals("NSDLST")) {
+                if (ast.kind(child) == NodeKind.NSDLST) {
                     totalVariables.addAll(processNSDLST(child));
-                } else if (child.getType().equals("NSDECL")) {
+                } else if (ast.kind(child) == NodeKind.NSDECL) {
                     totalVariables.add(handleNSDECL(child));
                 } else {
-                    throw new IOException("Unexpected node type: " + child.getType());
+                    throw new IOException("Unexpected node type: " + ast.type(child));
                 }
             }
-        } else if (node.getType().equals("NSDECL")) {
+        } else if (ast.kind(node) == NodeKind.NSDECL) {
             totalVariables.add(handleNSDECL(node));
         } else {
-            throw new IOException("Unexpected node type: " + node.getType());
+            throw new IOException("Unexpected node type: " + ast.type(node));
         }
 
         return totalVariables;
@@ -598,15 +597,16 @@ public class CodeGenerator {
     /**
      * Handles a single NSDECL node (variable declaration).
      *
-     * @param node The NSDECL node to handle.
+     * @param node The handle of the NSDECL node to handle.
      * @return The offset of the variable
      * @throws IOException If an I/O error occurs.
      */
-    private int handleNSDECL(Node node) throws IOException {
-        String varName = node.getValue();
-        String scope = node.getScope();
+    private int handleNSDECL(int node) throws IOException {
+        String varName = ast.value(node);
+        // TODO: Replace this with actual scope implementation
+        String scope = "1";
         int offset = allocateVariable(varName, scope);
-        symbolTable.setOffset(varName, offset);
+        symbolTable.setOffset(ast.nameId(node), offset);
         return offset;
     }
 }
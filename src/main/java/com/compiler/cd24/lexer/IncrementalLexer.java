@@ -0,0 +1,109 @@
+package com.compiler.cd24.lexer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * IncrementalLexer class
+ *
+ * This class updates a TokenBuffer after a small edit to its source without
+ * lexing the whole file again. Tokens that end well before the edit are kept
+ * as they are. Scanning restarts at the last token start before the edit,
+ * which is always outside a comment since comments are skipped between
+ * tokens. It stops as soon as it produces a token that matches an old token
+ * at the same place after the edit, at which point the rest of the old stream
+ * is reused, moved by the change in length. Lines and columns follow from the
+ * new source, so they need no adjusting.
+ *
+ * Offsets and lengths are in source characters, which are bytes.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public class IncrementalLexer {
+    // INFO: Recognising a lexeme can read one character past its end, as in
+    // "1." or "/-", and the Scanner reads one more before the next token
+    private static final int LOOKAHEAD = 2;
+
+    private IncrementalLexer() {
+    }
+
+    /**
+     * Applies an edit to the source of a token stream and re-lexes the affected
+     * range.
+     *
+     * @param previous      The tokens of the source before the edit.
+     * @param offset        The index of the first character replaced.
+     * @param removedLength The number of characters removed.
+     * @param insertedText  The text inserted in their place.
+     * @return The tokens of the edited source, over a new SourceBuffer.
+     */
+    public static TokenBuffer relex(TokenBuffer previous, int offset, int removedLength, String insertedText) {
+        byte[] inserted = insertedText.getBytes(StandardCharsets.UTF_8);
+        SourceBuffer source = previous.getSource().edit(offset, removedLength, inserted);
+        int delta = inserted.length - removedLength;
+        int editEnd = offset + inserted.length;
+
+        int restart = findRestart(previous, offset);
+        TokenBuffer tokens = new TokenBuffer(source, previous.size() + 16);
+        Scanner scanner = new Scanner(source, null);
+        if (restart > 0) {
+            tokens.appendRange(previous, 0, restart, 0);
+            scanner.restartAt(previous.start(restart));
+        }
+
+        int match = Math.max(restart, 0);
+        while (true) {
+            int index = scanner.scanInto(tokens);
+            if (tokens.kind(index) == 0) {
+                return tokens;
+            }
+            if (tokens.start(index) < editEnd) {
+                continue;
+            }
+            int oldStart = tokens.start(index) - delta;
+            while (match < previous.size() - 1 && previous.start(match) < oldStart) {
+                match++;
+            }
+            if (previous.start(match) == oldStart && previous.kind(match) == tokens.kind(index)
+                    && previous.length(match) == tokens.length(index)) {
+                // INFO: Same token at the same place, so everything after it lexes the same
+                tokens.appendRange(previous, match + 1, previous.size() - match - 1, delta);
+                return tokens;
+            }
+        }
+    }
+
+    /**
+     * Finds the token to resume scanning from for an edit at the given offset.
+     *
+     * @return The index of the last token that is safe to restart at, or 0 if
+     *         the source has to be scanned from the start.
+     */
+    private static int findRestart(TokenBuffer tokens, int offset) {
+        int low = 0;
+        int high = tokens.size() - 1;
+        // INFO: Binary search for the last token starting before the edit
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (tokens.start(mid) < offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int index = low;
+        while (index > 0 && !isRestartPoint(tokens, index, offset)) {
+            index--;
+        }
+        return index;
+    }
+
+    private static boolean isRestartPoint(TokenBuffer tokens, int index, int offset) {
+        if (tokens.kind(index) == 0 || tokens.hasMessage(index)) {
+            return false;
+        }
+        return tokens.start(index) + tokens.length(index) + LOOKAHEAD <= offset;
+    }
+}
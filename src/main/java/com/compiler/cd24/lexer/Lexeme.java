@@ -0,0 +1,200 @@
+package com.compiler.cd24.lexer;
+
+/**
+ * Lexeme class
+ *
+ * A read-only view of a range of a SourceBuffer. Tokens carry a Lexeme rather
+ * than a copied String, so a lexeme only becomes a String when toString() is
+ * called, and the String is then kept for later calls. Equality, hashing and
+ * numeric parsing all work on the source characters directly. The hash code
+ * matches String.hashCode() for the same characters.
+ *
+ * A Lexeme can also wrap a String, which is used for error tokens whose lexeme
+ * is a message rather than a range of the source.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public final class Lexeme implements CharSequence {
+    public static final Lexeme EMPTY = new Lexeme("");
+
+    // INFO: Powers of ten that are exact doubles, for the fast float path
+    private static final double[] POWERS_OF_TEN = new double[23];
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final SourceBuffer source;
+    private final int offset;
+    private final int length;
+    private String text;
+    private int hash;
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    public Lexeme(SourceBuffer source, int offset, int length) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+        this.text = null;
+    }
+
+    public Lexeme(String text) {
+        this.source = null;
+        this.offset = 0;
+        this.length = text.length();
+        this.text = text;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        if (source == null) {
+            return text.charAt(index);
+        }
+        return (char) source.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        if (source == null) {
+            return new Lexeme(text.substring(start, end));
+        }
+        return new Lexeme(source, offset + start, end - start);
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Checks whether this lexeme holds the same characters as another sequence.
+     *
+     * @param other The characters to compare against.
+     * @return true if both hold the same characters.
+     */
+    public boolean contentEquals(CharSequence other) {
+        if (other == null || other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the lexeme as a decimal integer without creating a String.
+     *
+     * @return The value of the lexeme.
+     * @throws NumberFormatException If the lexeme is not a string of digits or
+     *                               does not fit in a long.
+     */
+    public long parseLong() {
+        if (length == 0) {
+            throw new NumberFormatException("Empty integer literal");
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + this + "\"");
+            }
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                throw new NumberFormatException("For input string: \"" + this + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parses the lexeme as a float literal (digits, a dot, digits).
+     *
+     * @return The value of the lexeme.
+     * @throws NumberFormatException If the lexeme is not a float literal.
+     *
+     * @implNote Literals with few enough digits are parsed exactly from the
+     *           characters, since a mantissa below 2^53 divided by an exact
+     *           power of ten is correctly rounded. Longer literals fall back to
+     *           Double.parseDouble.
+     */
+    public double parseDouble() {
+        long mantissa = 0;
+        int fractionDigits = -1;
+        for (int i = 0; i < length; i++) {
+            char c = charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + this + "\"");
+            }
+            mantissa = mantissa * 10 + digit;
+            if (mantissa >= MAX_EXACT_MANTISSA) {
+                return Double.parseDouble(toString());
+            }
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (fractionDigits < 0) {
+            return mantissa;
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(toString());
+        }
+        return mantissa / POWERS_OF_TEN[fractionDigits];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Lexeme)) {
+            return false;
+        }
+        Lexeme lexeme = (Lexeme) other;
+        return hashCode() == lexeme.hashCode() && contentEquals(lexeme);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && length > 0) {
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + charAt(i);
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        if (text == null) {
+            text = source.substring(offset, offset + length);
+        }
+        return text;
+    }
+}
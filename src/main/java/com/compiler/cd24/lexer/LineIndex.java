@@ -0,0 +1,80 @@
+package com.compiler.cd24.lexer;
+
+/**
+ * LineIndex class
+ *
+ * This class records the index at which each line of a source starts, so a
+ * source offset can be turned into a line and column by binary search. The
+ * Scanner only records the offsets of tokens, and line and column numbers are
+ * worked out from this index when a diagnostic or a later phase asks for them.
+ *
+ * Lines and columns count from 1, and a line feed belongs to the line it ends.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public class LineIndex {
+    private final int[] lineStarts;
+
+    /**
+     * Builds the index for a source. Use SourceBuffer.getLineIndex() to share one
+     * index between everything that reads the same source.
+     *
+     * @param source The source to index.
+     */
+    LineIndex(SourceBuffer source) {
+        int length = source.length();
+        lineStarts = new int[source.countLineFeeds(0, length) + 1];
+        int line = 1;
+        int lineFeed = source.indexOfLineFeed(0);
+        while (lineFeed >= 0) {
+            lineStarts[line++] = lineFeed + 1;
+            lineFeed = source.indexOfLineFeed(lineFeed + 1);
+        }
+    }
+
+    /**
+     * @param offset An index into the source.
+     * @return The line the character at the index is on.
+     */
+    public int line(int offset) {
+        int low = 0;
+        int high = lineStarts.length - 1;
+        // INFO: Binary search for the last line starting at or before offset
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (lineStarts[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low + 1;
+    }
+
+    /**
+     * @param offset An index into the source.
+     * @return The column of the character at the index.
+     */
+    public int column(int offset) {
+        return offset - lineStarts[line(offset) - 1] + 1;
+    }
+
+    /**
+     * @param line A line number, from 1 to lineCount().
+     * @return The index of the first character of the line.
+     */
+    public int lineStart(int line) {
+        return lineStarts[line - 1];
+    }
+
+    /**
+     * @return The number of lines in the source, one more than the number of
+     *         line feeds.
+     */
+    public int lineCount() {
+        return lineStarts.length;
+    }
+}
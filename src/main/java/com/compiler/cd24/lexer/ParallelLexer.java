@@ -0,0 +1,179 @@
+package com.compiler.cd24.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * ParallelLexer class
+ *
+ * This class lexes a large source on several threads. The source is split into
+ * chunks that each start just after a line feed, and every chunk is lexed on a
+ * ForkJoinPool by its own Scanner as if nothing before it could affect it. No
+ * token other than a comment contains a line feed, so this guess only fails
+ * when a block comment is still open at the end of the previous chunk.
+ *
+ * The chunks are then stitched together in order. Each chunk's Scanner lexes
+ * the first token past its end, and if that token is the same as the next
+ * chunk's first token the next chunk is taken as it is. Otherwise the previous
+ * chunk's Scanner carries on into the next chunk until one of its tokens lines
+ * up with a token of a later chunk. Tokens only record their offsets, so they
+ * need no adjusting once stitched.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public class ParallelLexer {
+    // INFO: Sources below this size per chunk are not worth splitting
+    private static final int MIN_CHUNK_SIZE = 1 << 18;
+
+    private ParallelLexer() {
+    }
+
+    /**
+     * Lexes a source on the common ForkJoinPool.
+     *
+     * @param source The source to lex.
+     * @return A buffer holding every token, ending with the EOF token.
+     */
+    public static TokenBuffer tokenise(SourceBuffer source) {
+        return tokenise(source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Lexes a source on the given ForkJoinPool.
+     *
+     * @param source The source to lex.
+     * @param pool   The pool to lex the chunks on.
+     * @return A buffer holding every token, ending with the EOF token, the same as
+     *         Scanner.tokenise() would produce.
+     */
+    public static TokenBuffer tokenise(SourceBuffer source, ForkJoinPool pool) {
+        return tokenise(source, pool, MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Lexes a source on the given ForkJoinPool, splitting it into chunks of at
+     * least a given size. Small chunks are only useful to exercise the stitching
+     * on small sources.
+     */
+    static TokenBuffer tokenise(SourceBuffer source, ForkJoinPool pool, int minChunkSize) {
+        List<Chunk> chunks = split(source, pool.getParallelism(), minChunkSize);
+        if (chunks.size() == 1) {
+            return new Scanner(source, null).tokenise();
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            tasks.add(pool.submit(chunk::lex));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return stitch(source, chunks);
+    }
+
+    private static List<Chunk> split(SourceBuffer source, int parallelism, int minChunkSize) {
+        List<Chunk> chunks = new ArrayList<>();
+        int length = source.length();
+        int count = Math.min(Math.max(parallelism, 1) * 4, length / minChunkSize);
+        int targetSize = count > 1 ? length / count : length;
+        int begin = 0;
+        while (begin < length) {
+            int end = begin + targetSize;
+            if (end >= length - minChunkSize / 2) {
+                end = length;
+            } else {
+                while (end < length && source.charAt(end - 1) != '\n') {
+                    end++;
+                }
+            }
+            chunks.add(new Chunk(source, begin, end));
+            begin = end;
+        }
+        return chunks;
+    }
+
+    private static TokenBuffer stitch(SourceBuffer source, List<Chunk> chunks) {
+        TokenBuffer result = new TokenBuffer(source, Math.max(source.length() / 4, 16));
+        Chunk current = chunks.get(0);
+        int index = 0;
+        int runStart = 0;
+
+        for (int next = 1; next < chunks.size(); next++) {
+            Chunk candidate = chunks.get(next);
+            TokenBuffer tokens = current.tokens;
+            int match = 0;
+            while (true) {
+                if (index == tokens.size()) {
+                    current.scanner.scanInto(tokens);
+                }
+                if (tokens.start(index) < candidate.begin) {
+                    index++;
+                    continue;
+                }
+                TokenBuffer other = candidate.tokens;
+                while (match < other.size() - 1 && other.start(match) < tokens.start(index)) {
+                    match++;
+                }
+                if (sameToken(tokens, index, other, match)) {
+                    // INFO: Both Scanners agree from here on, so switch to the next chunk
+                    result.appendRange(tokens, runStart, index - runStart, 0);
+                    current = candidate;
+                    index = match;
+                    runStart = match;
+                    break;
+                }
+                if (tokens.kind(index) == 0 || tokens.start(index) >= candidate.end) {
+                    // INFO: The candidate lies inside a comment, try the chunk after it
+                    break;
+                }
+                index++;
+            }
+        }
+
+        TokenBuffer tokens = current.tokens;
+        while (tokens.kind(index) != 0) {
+            index++;
+            if (index == tokens.size()) {
+                current.scanner.scanInto(tokens);
+            }
+        }
+        result.appendRange(tokens, runStart, index + 1 - runStart, 0);
+        return result;
+    }
+
+    private static boolean sameToken(TokenBuffer a, int i, TokenBuffer b, int j) {
+        return a.start(i) == b.start(j) && a.kind(i) == b.kind(j) && a.length(i) == b.length(j);
+    }
+
+    /**
+     * A range of the source and the tokens lexed from it, followed by the first
+     * token that starts at or after its end.
+     */
+    private static class Chunk {
+        private final int begin;
+        private final int end;
+        private final Scanner scanner;
+        private final TokenBuffer tokens;
+
+        Chunk(SourceBuffer source, int begin, int end) {
+            this.begin = begin;
+            this.end = end;
+            this.scanner = new Scanner(source, null);
+            this.tokens = new TokenBuffer(source, Math.max((end - begin) / 4, 16));
+        }
+
+        void lex() {
+            if (begin > 0) {
+                scanner.restartAfterLineFeed(begin);
+            }
+            int index;
+            do {
+                index = scanner.scanInto(tokens);
+            } while (tokens.start(index) < end);
+        }
+    }
+}
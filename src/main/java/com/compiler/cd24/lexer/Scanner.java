@@ -2,12 +2,9 @@ package com.compiler.cd24.lexer;
 
 import com.compiler.cd24.util.OutputController;
 
-import java.io.FileReader;
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.util.Arrays;
-import java.util.ArrayList;
 
 /**
  * Scanner class
@@ -19,6 +16,15 @@ import java.util.ArrayList;
  * position in the input and provides methods for token identification and
  * processing.
  *
+ * Whitespace and comments are skipped in a loop rather than by recursion, and
+ * lookahead reads the SourceBuffer by index, so any run of comments is scanned
+ * in constant stack space without boxing characters.
+ *
+ * Only the source offset of each token is recorded. Lines and columns are
+ * worked out from the source's LineIndex when they are asked for, and the
+ * listing is written from the source in bulk by the OutputController, so
+ * nothing is done per character beyond reading it.
+ *
  * Date: 2024-09-27
  * 
  * @author Thomas Bandy, Benjamin Rogers
@@ -26,40 +32,193 @@ import java.util.ArrayList;
  */
 public class Scanner {
 
-    private static final String[] CHAR_TYPES = new String[128];
-    private FileReader fileReader;
+    // INFO: Character classes, indexed by character + 1 so that EOF (-1) maps to
+    // slot 0 and every lookup is a single array load
+    private static final byte CC_EOF = 0;
+    private static final byte CC_OTHER = 1;
+    private static final byte CC_WHITESPACE = 2;
+    private static final byte CC_LINEFEED = 3;
+    private static final byte CC_LETTER = 4;
+    private static final byte CC_DIGIT = 5;
+    private static final byte CC_DOT = 6;
+    private static final byte CC_SLASH = 7;
+    private static final byte CC_STAR = 8;
+    private static final byte CC_MINUS = 9;
+    private static final byte CC_EQUALS = 10;
+    private static final byte CC_EQ_PREFIX = 11;
+    private static final byte CC_BANG = 12;
+    private static final byte CC_SINGLE_OP = 13;
+    private static final byte CC_INVALID = 14;
+    private static final byte CC_QUOTE = 15;
+    private static final int CLASS_COUNT = 16;
+
+    // INFO: DFA states, ERROR is the dead state that ends a lexeme
+    private static final int ERROR = -1;
+    private static final int START = 0;
+    private static final int IDENT = 1;
+    private static final int INT = 2;
+    private static final int INT_DOT = 3;
+    private static final int FLOAT = 4;
+    private static final int OP_DONE = 5;
+    private static final int OP_EQ_PREFIX = 6;
+    private static final int OP_EQUALS = 7;
+    private static final int OP_STAR = 8;
+    private static final int OP_MINUS = 9;
+    private static final int OP_SLASH = 10;
+    private static final int SLASH_MINUS = 11;
+    private static final int SLASH_STAR = 12;
+    private static final int LINE_COMMENT = 13;
+    private static final int LINE_COMMENT_END = 14;
+    private static final int BLOCK_COMMENT = 15;
+    private static final int BLOCK_STAR = 16;
+    private static final int BLOCK_STAR_STAR = 17;
+    private static final int BLOCK_COMMENT_END = 18;
+    private static final int BANG = 19;
+    private static final int INVALID_RUN = 20;
+    private static final int OTHER_RUN = 21;
+    private static final int STATE_COUNT = 22;
+
+    // INFO: What a lexeme ending in a given state is recognised as
+    private static final byte ACCEPT_NONE = 0;
+    private static final byte ACCEPT_IDENT = 1;
+    private static final byte ACCEPT_INT = 2;
+    private static final byte ACCEPT_FLOAT = 3;
+    private static final byte ACCEPT_OPERATOR = 4;
+    private static final byte ACCEPT_UNDEF = 5;
+    private static final byte ACCEPT_COMMENT = 6;
+
+    private static final byte[] CHAR_CLASSES = new byte[257];
+    private static final int[][] TRANSITIONS = new int[STATE_COUNT][CLASS_COUNT];
+    private static final byte[] ACCEPTS = new byte[STATE_COUNT];
+
+    private SourceBuffer source;
+    private int position = 0;
     private int currentChar = 0;
-    private int nextChar = 0;
-    private ArrayList<Integer> charBuffer = new ArrayList<>();
-    private boolean commentMode = false;
+    private int lastAcceptState = START;
     private OutputController outputController;
 
-    private int currentLine = 1;
-    private int currentColumn = 0;
-    private int tokenStartLine = 1;
-    private int tokenStartColumn = 0;
-
-    // INFO: Precomputing the types table for O(1) lookup time complexity
+    // INFO: The most recently scanned token, before it is wrapped or buffered
+    private int tokenId = 0;
+    private int tokenOffset = 0;
+    private int tokenLength = 0;
+    private long tokenValue = 0;
+    private String tokenMessage = null;
+    // INFO: Whether the listing shows one character past the Scanner's position
+    private boolean readAhead = false;
+
+    // INFO: Generating the character class and transition tables once per class
+    // load
     static {
-        Arrays.fill(CHAR_TYPES, "other");
-
-        CHAR_TYPES[32] = "whitespace";
-        CHAR_TYPES[10] = "linefeed";
-        CHAR_TYPES[13] = "carriage_return";
-        for (int i = 48; i <= 57; i++)
-            CHAR_TYPES[i] = "number";
-        for (int i = 65; i <= 90; i++)
-            CHAR_TYPES[i] = "letter";
-        for (int i = 97; i <= 122; i++)
-            CHAR_TYPES[i] = "letter";
-        for (int i = 33; i <= 47; i++)
-            CHAR_TYPES[i] = "potential_delimiter";
-        for (int i = 58; i <= 64; i++)
-            CHAR_TYPES[i] = "potential_delimiter";
-        for (int i = 91; i <= 96; i++)
-            CHAR_TYPES[i] = "potential_delimiter";
-        for (int i = 123; i <= 126; i++)
-            CHAR_TYPES[i] = "potential_delimiter";
+        Arrays.fill(CHAR_CLASSES, CC_OTHER);
+        CHAR_CLASSES[0] = CC_EOF;
+        for (int c = 33; c <= 126; c++)
+            setClass(c, CC_INVALID);
+        for (int c = '0'; c <= '9'; c++)
+            setClass(c, CC_DIGIT);
+        for (int c = 'A'; c <= 'Z'; c++)
+            setClass(c, CC_LETTER);
+        for (int c = 'a'; c <= 'z'; c++)
+            setClass(c, CC_LETTER);
+        for (char c : ",[]()%^:;".toCharArray())
+            setClass(c, CC_SINGLE_OP);
+        for (char c : "<>+".toCharArray())
+            setClass(c, CC_EQ_PREFIX);
+        setClass('\t', CC_WHITESPACE);
+        setClass(' ', CC_WHITESPACE);
+        setClass('\r', CC_WHITESPACE);
+        setClass('\n', CC_LINEFEED);
+        setClass('.', CC_DOT);
+        setClass('/', CC_SLASH);
+        setClass('*', CC_STAR);
+        setClass('-', CC_MINUS);
+        setClass('=', CC_EQUALS);
+        setClass('!', CC_BANG);
+        setClass('"', CC_QUOTE);
+
+        for (int[] row : TRANSITIONS)
+            Arrays.fill(row, ERROR);
+
+        transition(START, CC_LETTER, IDENT);
+        transition(START, CC_DIGIT, INT);
+        transition(START, CC_DOT, OP_DONE);
+        transition(START, CC_SINGLE_OP, OP_DONE);
+        transition(START, CC_EQ_PREFIX, OP_EQ_PREFIX);
+        transition(START, CC_EQUALS, OP_EQUALS);
+        transition(START, CC_STAR, OP_STAR);
+        transition(START, CC_MINUS, OP_MINUS);
+        transition(START, CC_SLASH, OP_SLASH);
+        transition(START, CC_BANG, BANG);
+        transition(START, CC_INVALID, INVALID_RUN);
+        transition(START, CC_OTHER, OTHER_RUN);
+
+        // INFO: <id> ::= letter (letter | digit)*
+        transition(IDENT, CC_LETTER, IDENT);
+        transition(IDENT, CC_DIGIT, IDENT);
+
+        // INFO: Integers, and floats which need at least one digit after the dot
+        transition(INT, CC_DIGIT, INT);
+        transition(INT, CC_DOT, INT_DOT);
+        transition(INT_DOT, CC_DIGIT, FLOAT);
+        transition(FLOAT, CC_DIGIT, FLOAT);
+
+        // INFO: Two character operators <=, >=, +=, ==, *=, -=, /=, !=
+        transition(OP_EQ_PREFIX, CC_EQUALS, OP_DONE);
+        transition(OP_EQUALS, CC_EQUALS, OP_DONE);
+        transition(OP_STAR, CC_EQUALS, OP_DONE);
+        transition(OP_MINUS, CC_EQUALS, OP_DONE);
+        transition(OP_SLASH, CC_EQUALS, OP_DONE);
+        transition(BANG, CC_EQUALS, OP_DONE);
+
+        // INFO: Runs of undefined characters are reported as a single lexeme
+        transition(BANG, CC_BANG, INVALID_RUN);
+        transition(BANG, CC_INVALID, INVALID_RUN);
+        transition(INVALID_RUN, CC_BANG, INVALID_RUN);
+        transition(INVALID_RUN, CC_INVALID, INVALID_RUN);
+        transition(OTHER_RUN, CC_OTHER, OTHER_RUN);
+
+        // INFO: /-- runs to the end of the line, the linefeed included
+        transition(OP_SLASH, CC_MINUS, SLASH_MINUS);
+        transition(SLASH_MINUS, CC_MINUS, LINE_COMMENT);
+        fillRow(LINE_COMMENT, LINE_COMMENT);
+        transition(LINE_COMMENT, CC_LINEFEED, LINE_COMMENT_END);
+        transition(LINE_COMMENT, CC_EOF, ERROR);
+
+        // INFO: /** runs until the first **\/
+        transition(OP_SLASH, CC_STAR, SLASH_STAR);
+        transition(SLASH_STAR, CC_STAR, BLOCK_COMMENT);
+        fillRow(BLOCK_COMMENT, BLOCK_COMMENT);
+        transition(BLOCK_COMMENT, CC_STAR, BLOCK_STAR);
+        fillRow(BLOCK_STAR, BLOCK_COMMENT);
+        transition(BLOCK_STAR, CC_STAR, BLOCK_STAR_STAR);
+        fillRow(BLOCK_STAR_STAR, BLOCK_COMMENT);
+        transition(BLOCK_STAR_STAR, CC_STAR, BLOCK_STAR_STAR);
+        transition(BLOCK_STAR_STAR, CC_SLASH, BLOCK_COMMENT_END);
+        for (int state : new int[] { BLOCK_COMMENT, BLOCK_STAR, BLOCK_STAR_STAR })
+            transition(state, CC_EOF, ERROR);
+
+        ACCEPTS[IDENT] = ACCEPT_IDENT;
+        ACCEPTS[INT] = ACCEPT_INT;
+        ACCEPTS[FLOAT] = ACCEPT_FLOAT;
+        for (int state : new int[] { OP_DONE, OP_EQ_PREFIX, OP_EQUALS, OP_STAR, OP_MINUS, OP_SLASH })
+            ACCEPTS[state] = ACCEPT_OPERATOR;
+        for (int state : new int[] { BANG, INVALID_RUN, OTHER_RUN })
+            ACCEPTS[state] = ACCEPT_UNDEF;
+        // INFO: Unterminated comments swallow the rest of the file
+        for (int state : new int[] { LINE_COMMENT, LINE_COMMENT_END, BLOCK_COMMENT, BLOCK_STAR, BLOCK_STAR_STAR,
+                BLOCK_COMMENT_END })
+            ACCEPTS[state] = ACCEPT_COMMENT;
+    }
+
+    private static void setClass(int c, byte charClass) {
+        CHAR_CLASSES[c + 1] = charClass;
+    }
+
+    private static void transition(int state, byte charClass, int next) {
+        TRANSITIONS[state][charClass] = next;
+    }
+
+    private static void fillRow(int state, int next) {
+        Arrays.fill(TRANSITIONS[state], next);
     }
 
     /**
@@ -77,45 +236,80 @@ public class Scanner {
      */
     public Scanner(String filePath, OutputController outputController) {
         try {
-            fileReader = new FileReader(new File(filePath));
-            this.outputController = outputController;
-        } catch (FileNotFoundException e) {
+            source = SourceBuffer.fromFile(filePath);
+            setOutputController(outputController);
+        } catch (NoSuchFileException e) {
             System.out.println("File not found");
+        } catch (IOException e) {
+            System.out.println("Exception " + e);
         }
 
     }
 
     /**
-     * Reads the next character from the file input stream.
-     * 
-     * @return The next character from the file as an integer representing its ASCII
-     *         value. Returns -1 if the end of the file is reached or 0 if an
-     *         IOException occurs.
+     * Constructs a Scanner over a source that is already in memory, such as one
+     * built by SourceBuffer.fromText(), fromByteBuffer() or fromInputStream().
+     *
+     * @param source           The source to be tokenised.
+     * @param outputController The controller for managing output, or null if no
+     *                         listing or warnings should be written.
+     */
+    public Scanner(SourceBuffer source, OutputController outputController) {
+        this.source = source;
+        setOutputController(outputController);
+    }
+
+    private void setOutputController(OutputController outputController) {
+        this.outputController = outputController;
+        if (outputController != null) {
+            outputController.setListingSource(source);
+        }
+    }
+
+    /**
+     * Moves the Scanner to the start of a token that was scanned earlier, so
+     * scanning can resume from there rather than from the start of the source.
+     *
+     * @param offset The source index of the first character of the token.
+     *
+     * @implNote The token must not be the first in the source, as the Scanner
+     *           reads that one from before the start of the source.
+     */
+    void restartAt(int offset) {
+        position = offset + 1;
+        currentChar = source.charAt(offset);
+    }
+
+    /**
+     * Moves the Scanner to the start of a line, in the state it would be in after
+     * reading the preceding line feed.
+     *
+     * @param offset The source index just after a line feed.
+     */
+    void restartAfterLineFeed(int offset) {
+        position = offset;
+        currentChar = getNextChar();
+    }
+
+    /**
+     * Reads the next character from the source buffer.
      * 
-     * @throws RuntimeException if a non-ASCII character (value > 127) is
-     *                          encountered.
+     * @return The next character from the source as an integer representing its
+     *         ASCII value. Returns -1 if the end of the source is reached.
      * 
-     * @implNote This method handles the reading of characters, updates the current
-     *           position, and outputs the character to the listing. It also handles
-     *           potential IOExceptions.
+     * @implNote This method reads the character at the current buffer index and
+     *           advances the index. Non-ASCII characters (value > 127) are
+     *           reported, when there is an OutputController, but still returned.
      */
     public int getNextChar() {
-        try {
-            int tempChar = fileReader.read();
-            if (tempChar < 0 && tempChar != -1) {
-                tempChar = fileReader.read();
-                updatePosition(tempChar);
-            }
-            if (tempChar > 127) {
-                System.out.println("Error: Non Ascii character");
-            }
-            updatePosition(tempChar);
-            // outputController.outputToListing((char) tempChar, currentColumn);
-            return tempChar;
-        } catch (IOException e) {
-            System.out.println("Exception " + e);
-            return 0;
+        int tempChar = source.charAt(position);
+        if (tempChar != -1) {
+            position++;
+        }
+        if (tempChar > 127 && outputController != null) {
+            System.out.println("Error: Non Ascii character");
         }
+        return tempChar;
     }
 
     /**
@@ -123,522 +317,317 @@ public class Scanner {
      * 
      * @return A Token object representing the next identified token in the input.
      *         Returns a token with ID 0 if the end of file is reached.
-     * 
-     * @implNote This method handles various token types including comments,
-     *           strings, numbers, and identifiers. It also manages the state of the
-     *           tokeniser and handles special cases like combined operators.
      */
     public Token nextToken() {
-        ArrayList<Integer> asciiCharList = new ArrayList<>();
-        boolean isSameState = true;
-        boolean isFirstIteration = true;
-        boolean hasDot = false;
+        scanToken();
+        Lexeme lexeme = tokenMessage != null ? new Lexeme(tokenMessage)
+                : TokenBuffer.sliceOf(source, tokenId, tokenOffset, tokenLength);
+        return new Token(tokenId, lexeme, source, tokenOffset, tokenValue);
+    }
 
-        handleCommentOccurence();
-        tokenStartLine = currentLine;
-        tokenStartColumn = currentColumn;
+    /**
+     * Scans the next token and appends it to a TokenBuffer without creating a
+     * Token object or a lexeme String.
+     * 
+     * @param buffer The buffer to append to.
+     * @return The index of the token in the buffer.
+     */
+    public int scanInto(TokenBuffer buffer) {
+        scanToken();
+        int index = buffer.add(tokenId, tokenOffset, tokenLength, tokenValue);
+        if (tokenMessage != null) {
+            buffer.setMessage(index, tokenMessage);
+        }
+        return index;
+    }
 
-        while (isSameState) {
+    /**
+     * Scans the whole input into a new TokenBuffer.
+     * 
+     * @return A buffer holding every token, ending with the EOF token.
+     */
+    public TokenBuffer tokenise() {
+        TokenBuffer buffer = new TokenBuffer(source, Math.max(source.length() / 4, 16));
+        while (buffer.kind(scanInto(buffer)) != 0) {
+            // INFO: scanInto does the work
+        }
+        return buffer;
+    }
+
+    /**
+     * Scans the next token into the tokenId, tokenOffset, tokenLength, tokenValue
+     * and tokenMessage fields, then tells the OutputController how far the source
+     * has been read.
+     * 
+     * @implNote Whitespace and comments are skipped in a loop. Every other lexeme
+     *           is recognised by running the transition table from the current
+     *           character and keeping the longest accepted prefix.
+     */
+    private void scanToken() {
+        findNextToken();
+        if (outputController != null) {
+            outputController.advanceListing(readAhead ? Math.min(position + 1, source.length()) : position);
+        }
+    }
+
+    private void findNextToken() {
+        tokenValue = 0;
+        tokenMessage = null;
+        readAhead = false;
 
+        while (true) {
             // INFO: Handle new start
             if (currentChar == 0) {
                 currentChar = getNextChar();
             }
 
-            // INFO: Handle EOF
-            if (currentChar == -1) {
-                return new Token(0, "", 0, 0);
-            }
-
             // INFO: Handle Dead Characters
-            if (handleDeadCharacters(asciiCharList, isSameState)) {
+            if (handleDeadCharacters()) {
                 continue;
             }
 
-            // INFO: Ensure that the held char is accounted for
-            if (!isFirstIteration) {
-                if (charBuffer.size() != 0) {
-                    currentChar = charBuffer.remove(0);
-                    charBuffer.remove(0);
-                } else if (nextChar == 0) {
-                    currentChar = this.getNextChar();
-                } else {
-                    currentChar = nextChar;
-                    nextChar = 0;
-                }
-            } else {
-                if (charBuffer.size() != 0) {
-                    currentChar = charBuffer.remove(0);
-                }
+            // INFO: Handle EOF
+            if (currentChar == -1) {
+                tokenId = 0;
+                tokenOffset = source.length();
+                tokenLength = 0;
+                return;
             }
+
             // INFO: Handle strings when " found
             if (currentChar == 34) {
-                return handleStringOccurrence();
+                handleStringOccurrence();
+                return;
             }
-            isFirstIteration = false;
-
-            if (!asciiCharList.isEmpty()) {
-                int previousChar = asciiCharList.get(asciiCharList.size() - 1);
-                isSameState = checkState(currentChar, previousChar);
-
-                // INFO: Handles lexemes with one letter and numbers
-                if (asciiCharList.size() == 1 && getType(previousChar).equals("letter")
-                        && getType(currentChar).equals("number")) {
-                    asciiCharList.add(currentChar);
-                    isSameState = true;
-                    currentChar = getNextChar();
-
-                }
-                // INFO: Handles lexemes with numbers
-                if (getType(currentChar).equals("letter")) {
-                    nextChar = this.getNextChar();
-                    if (getType(nextChar).equals("number")) {
-                        asciiCharList.add(currentChar);
-                        currentChar = nextChar;
-                        nextChar = 0;
-                        isSameState = true;
-                    }
-                }
-                // INFO: Handles doubles
-                if (currentChar == 46) {
-                    nextChar = this.getNextChar();
-                    if (getType(nextChar).equals("number") && !hasDot) {
-                        hasDot = true;
-                        asciiCharList.add(currentChar);
-                        currentChar = nextChar;
-                        nextChar = 0;
-                        isSameState = true;
-                    } else {
-                        charBuffer.add(nextChar);
-                        nextChar = 0;
-                    }
-                }
-                // INFO: Handles Delimiters
-                if (getType(previousChar).equals("potential_delimiter") && isSameState) {
-                    if (handlePotentialDelimiters(asciiCharList, previousChar, isSameState)) {
-                        break;
-                    }
-                } else if (isSameState) {
-                    asciiCharList.add(currentChar);
-                } else {
-                    break;
-                }
-            } else {
-                asciiCharList.add(currentChar);
-                if (isValidChar(currentChar) && getType(currentChar).equals("potential_delimiter")
-                        && (currentChar != 47) && !isCombinedOperator(currentChar, 61)) {
-                    isSameState = false;
-                    currentChar = getNextChar();
-                }
 
+            int start = position - 1;
+            int end = currentChar == '/' ? findCommentEnd(start) : -1;
+            byte accept = ACCEPT_COMMENT;
+            if (end < 0) {
+                end = scanLexeme(start);
+                accept = ACCEPTS[lastAcceptState];
             }
+            skipTo(end);
+            currentChar = getNextChar();
 
+            if (accept == ACCEPT_COMMENT) {
+                continue;
+            }
+            tokenOffset = start;
+            tokenLength = end - start;
+            findToken(accept);
+            // INFO: The listing has always shown one more character after
+            // undefined characters that run into an identifier or number
+            byte nextClass = CHAR_CLASSES[currentChar + 1];
+            readAhead = accept == ACCEPT_UNDEF && (nextClass == CC_LETTER || nextClass == CC_DIGIT);
+            return;
         }
-
-        Token tempToken = findToken(asciiArrayListToString(asciiCharList));
-        // System.out.println(tempToken.getType());
-        // INFO: Recursive goodness?
-        if (tempToken.getTokenId() == -1) {
-            tempToken = nextToken();
-        }
-        return tempToken;
     }
 
     /**
-     * Handles dead characters (horizontal tabs, whitespace, line feed, carriage
-     * return) in the input.
+     * Runs the DFA over the source starting at the given index without consuming
+     * any input.
      * 
-     * @param asciiCharList The list of ASCII characters being processed.
-     * @param isSameState   Boolean indicating if the current state is the same as
-     *                      the previous.
-     * @return true if a dead character was handled and the loop should continue,
-     *         false otherwise.
+     * @param start The buffer index of the first character of the lexeme.
+     * @return The buffer index one past the end of the longest accepted lexeme.
+     *         The state that accepted it is left in lastAcceptState.
      */
-    private boolean handleDeadCharacters(ArrayList<Integer> asciiCharList, boolean isSameState) {
-
-        if (currentChar == 9 || currentChar == 32 || currentChar == 10 || currentChar == 13) {
-            currentChar = this.getNextChar();
-            tokenStartLine = currentLine;
-            tokenStartColumn = currentColumn;
-            return true;
+    private int scanLexeme(int start) {
+        int state = START;
+        int index = start;
+        int acceptEnd = start;
+        lastAcceptState = START;
+        while (true) {
+            state = TRANSITIONS[state][CHAR_CLASSES[source.charAt(index) + 1]];
+            if (state == ERROR) {
+                return acceptEnd;
+            }
+            index++;
+            if (ACCEPTS[state] != ACCEPT_NONE) {
+                acceptEnd = index;
+                lastAcceptState = state;
+            }
         }
-        return false;
     }
 
     /**
-     * Handles potential delimiter characters in the input.
+     * Handles dead characters (horizontal tabs, whitespace, line feed, carriage
+     * return) in the input.
      * 
-     * @param asciiCharList The list of ASCII characters being processed.
-     * @param previousChar  The previous character encountered.
-     * @param isSameState   Boolean indicating if the current state is the same as
-     *                      the previous.
-     * @return true if the loop should break after handling the delimiter, false
-     *         otherwise.
+     * @return true if a dead character was handled and the loop should continue,
+     *         false otherwise.
      */
-    private boolean handlePotentialDelimiters(ArrayList<Integer> asciiCharList, int previousChar, boolean isSameState) {
-        if (!isValidChar(currentChar) && !isValidChar(previousChar)) {
-            while (!isValidChar(currentChar) && getType(currentChar).equals("potential_delimiter")) {
-                asciiCharList.add(currentChar);
-                currentChar = getNextChar();
+    private boolean handleDeadCharacters() {
+        byte charClass = CHAR_CLASSES[currentChar + 1];
+        if (charClass == CC_WHITESPACE || charClass == CC_LINEFEED) {
+            if (isBlank(source.charAt(position))) {
+                skipTo(source.skipBlanks(position));
             }
-            return true;
-        }
-        if (isCombinedOperator(previousChar, currentChar)) {
-            asciiCharList.add(currentChar);
-            currentChar = getNextChar();
-            return true;
-        }
-        if (isValidChar(previousChar) && previousChar == 47
-                && (currentChar != 42 && currentChar != 45)) {
-            return true;
-        } else if (isValidChar(previousChar) && previousChar == 47
-                && (currentChar == 42 || currentChar == 45)) {
-            nextChar = getNextChar();
-            if (nextChar == 42 && currentChar == 42 || nextChar == 45 && currentChar == 45) {
-                asciiCharList.add(currentChar);
-                asciiCharList.add(nextChar);
-                nextChar = 0;
-                currentChar = getNextChar();
-            } else {
-                charBuffer.add(currentChar);
-                charBuffer.add(nextChar);
-                nextChar = 0;
-            }
-        } else {
+            currentChar = this.getNextChar();
             return true;
         }
         return false;
     }
 
-    /**
-     * Checks if two characters form a combined operator.
-     * 
-     * @param char1 The first character of the potential combined operator.
-     * @param char2 The second character of the potential combined operator.
-     * @return true if the characters form a valid combined operator, false
-     *         otherwise.
-     */
-    private boolean isCombinedOperator(int char1, int char2) {
-        if (char2 == 61) {
-            if (char1 == 60 || char1 == 62 || char1 == 61 || char1 == 33 || char1 == 42 || char1 == 43 || char1 == 45
-                    || char1 == 47) {
-                return true;
-            }
-        }
-        return false;
+    private static boolean isBlank(int c) {
+        byte charClass = CHAR_CLASSES[c + 1];
+        return charClass == CC_WHITESPACE || charClass == CC_LINEFEED;
     }
 
     /**
-     * Checks if a given lexeme is a comment start.
+     * Finds the end of a comment without running the DFA over its body.
      *
-     * @param lexeme The lexeme to check.
-     * @return true if the lexeme is a comment start, false otherwise.
+     * @param start The buffer index of a '/'.
+     * @return The buffer index one past the end of the comment, the same as
+     *         scanLexeme would return, or -1 if no comment starts here.
      */
-    private boolean commentCheck(String lexeme) {
-
-        if (lexeme.equals("/**")) {
-            this.commentMode = true;
-            return true;
+    private int findCommentEnd(int start) {
+        int second = source.charAt(start + 1);
+        if (second != source.charAt(start + 2)) {
+            return -1;
         }
-        if (lexeme.equals("/--")) {
-            int tempChar = getNextChar();
-            while (tempChar != 10 & tempChar != -1) {
-                tempChar = getNextChar();
-            }
-            nextChar = 0;
-            currentChar = getNextChar();
-            return true;
+        if (second == '-') {
+            int lineFeed = source.indexOfLineFeed(start + 3);
+            return lineFeed < 0 ? source.length() : lineFeed + 1;
         }
-        return false;
+        if (second == '*') {
+            int end = source.indexAfterCommentClose(start + 3);
+            return end < 0 ? source.length() : end;
+        }
+        return -1;
     }
 
     /**
-     * Handles the occurrence of comments in the input.
-     * This method is called when the scanner is in comment mode (commentMode is
-     * true). It processes characters until the end of the comment is reached or the
-     * end of file is encountered.
+     * Consumes every character before the given index, leaving the last one in
+     * currentChar.
+     *
+     * @param end The buffer index to stop at, no greater than the source length.
      *
-     * @implNote This method handles multi-line comments that start with "/**" and
-     *           end with "**\/". It updates the commentMode flag to false when the
-     *           end of a comment is reached or EOF is encountered. The method does
-     *           not return anything but updates the currentChar to the first
-     *           character after the comment.
+     * @implNote Non-ASCII characters in the range are counted and reported the
+     *           same as getNextChar() would report them one by one.
      */
-    private void handleCommentOccurence() {
-        if (commentMode) {
-            String delimiterBuffer = "";
-            while (true) {
-                if (currentChar == -1) {
-                    commentMode = false;
-                    break;
-                }
-                if (currentChar == 42 || currentChar == 47) {
-                    delimiterBuffer += (char) currentChar;
-                    if (delimiterBuffer.equals("**/")) {
-                        commentMode = false;
-                        break;
-                    }
-                } else {
-                    delimiterBuffer = "";
-                }
-                currentChar = getNextChar();
+    private void skipTo(int end) {
+        if (end <= position) {
+            return;
+        }
+        if (outputController != null) {
+            for (int i = source.countNonAscii(position, end); i > 0; i--) {
+                System.out.println("Error: Non Ascii character");
             }
-            currentChar = getNextChar();
-            nextChar = 0;
         }
+        position = end;
+        currentChar = source.charAt(end - 1);
     }
 
     /**
      * Handles the occurrence of a string literal in the input.
      * This method is called when a double quote (") is encountered, denoting the
      * start of a string. It reads characters until the closing double quote is
-     * found, constructing the string token.
-     *
-     * @return A Token object representing the string literal. The token has an ID
-     *         of 67 (TSTRG),and its value is the content of the string (excluding
-     *         the quotation marks).
+     * found and records the range of the string's contents.
      *
-     * @implNote This method assumes that the opening quotation mark has already
-     *           been consumed. It does not include the quotation marks in the
-     *           returned token's value. After processing the string, it advances
-     *           the currentChar to the character following the closing quote.
+     * @implNote The token is a TSTRG (67) whose range runs from the opening to
+     *           the closing quotation mark. If a line feed or EOF comes first the
+     *           token is a TUNDF (68) carrying an "Unterminated string" message,
+     *           whose range stops before the line feed. After a closed string,
+     *           currentChar is the character following the closing quote.
      */
-    private Token handleStringOccurrence() {
-        ArrayList<Integer> asciiCharList = new ArrayList<>();
-        tokenStartLine = currentLine;
-        tokenStartColumn = currentColumn;
+    private void handleStringOccurrence() {
+        tokenOffset = position - 1;
 
         currentChar = getNextChar();
         while (currentChar != 34) {
             if (currentChar == 10 || currentChar == -1) {
-                return new Token(68, "Unterminated string: \"" + asciiArrayListToString(asciiCharList), tokenStartLine,
-                        tokenStartColumn);
+                tokenId = Tokeniser.getTokenCode(Tokeniser.TokenType.TUNDF);
+                tokenLength = position - 1 - tokenOffset;
+                if (currentChar == -1) {
+                    tokenLength = source.length() - tokenOffset;
+                }
+                tokenMessage = "Unterminated string: \"" + source.substring(tokenOffset + 1, tokenOffset + tokenLength);
+                return;
             }
-            asciiCharList.add(currentChar);
             currentChar = getNextChar();
         }
+        tokenId = Tokeniser.getTokenCode(Tokeniser.TokenType.TSTRG);
+        tokenLength = position - tokenOffset;
         currentChar = getNextChar();
-        return new Token(67, asciiArrayListToString(asciiCharList), tokenStartLine, tokenStartColumn);
-    }
-
-    /**
-     * Checks if two characters are of the same type, determining if they belong to
-     * the same lexical state.
-     *
-     * @param char1 The ASCII value of the first character.
-     * @param char2 The ASCII value of the second character.
-     * @return true if both characters are of the same type (as determined by the
-     *         getType method), false otherwise.
-     *
-     * @see #getType(int)
-     */
-    private boolean checkState(int char1, int char2) {
-        return this.getType(char1).equals(this.getType(char2));
-    }
-
-    /**
-     * Determines the type of a given character based on its ASCII value.
-     *
-     * @param incomingChar The ASCII value of the character to be typed.
-     * @return A String representing the type of the character.
-     */
-    private String getType(int incomingChar) {
-        if (incomingChar == -1) {
-            return "EOF";
-        }
-        return incomingChar < 128 ? CHAR_TYPES[incomingChar] : "other";
-    }
-
-    /**
-     * Converts an ArrayList of ASCII character codes to a String.
-     *
-     * @param asciiList An ArrayList of Integer objects, where each Integer
-     *                  represents the ASCII code of a character.
-     * @return A String formed by converting each ASCII code to its corresponding
-     *         character and concatenating them.
-     */
-    private String asciiArrayListToString(ArrayList<Integer> asciiList) {
-        if (asciiList == null || asciiList.isEmpty()) {
-            return "";
-        }
-        StringBuilder stringBuilder = new StringBuilder(asciiList.size());
-        for (int asciiChar : asciiList) {
-            stringBuilder.append((char) asciiChar);
-        }
-        return stringBuilder.toString();
     }
 
     /**
-     * Finds and returns a Token object based on the given lexeme.
+     * Resolves the token id for a lexeme recognised by the DFA. The lexeme is the
+     * source range held in tokenOffset and tokenLength.
      *
-     * @param lexeme The string representation of the lexeme to be tokenised.
-     * @return A Token object representing the lexeme.
-     */
-    private Token findToken(String lexeme) {
-        if (commentCheck(lexeme)) {
-            return new Token(-1, "comment", tokenStartLine, tokenStartColumn);
-        }
-
-        Tokeniser.TokenType keywordType = Tokeniser.getKeywordTokenType(lexeme);
-        if (keywordType != null) {
-            return new Token(Tokeniser.getTokenCode(keywordType), "", tokenStartLine, tokenStartColumn);
-        }
-
-        if (isIntegerLiteral(lexeme)) {
-            return handleIntegerLiteral(lexeme);
-        }
-
-        if (isFloatLiteral(lexeme)) {
-            return handleFloatLiteral(lexeme);
-        }
-
-        if (isIdentifier(lexeme)) {
-            return new Token(Tokeniser.getTokenCode(Tokeniser.TokenType.TIDEN), lexeme, tokenStartLine,
-                    tokenStartColumn);
-        }
-
-        Tokeniser.TokenType operatorType = Tokeniser.getOperatorTokenType(lexeme);
-        if (operatorType != null) {
-            return new Token(Tokeniser.getTokenCode(operatorType), "", tokenStartLine, tokenStartColumn);
-        }
-
-        return new Token(Tokeniser.getTokenCode(Tokeniser.TokenType.TUNDF), lexeme, tokenStartLine, tokenStartColumn);
-    }
-
-    /**
-     * Checks if the given lexeme is an integer literal.
-     * 
-     * @param lexeme The string to be checked.
-     * @return true if the lexeme consists only of digits (0-9), false otherwise.
-     */
-    private boolean isIntegerLiteral(String lexeme) {
-        if (lexeme.isEmpty())
-            return false;
-        for (char c : lexeme.toCharArray()) {
-            if (!Character.isDigit(c))
-                return false;
-        }
-        return true;
-    }
-
-    /**
-     * Checks if the given lexeme is a float literal.
-     * 
-     * @param lexeme The string to be checked.
-     * @return true if the lexeme is a valid float representation, false otherwise.
-     */
-    private boolean isFloatLiteral(String lexeme) {
-        if (lexeme.isEmpty())
-            return false;
-        boolean hasDecimalPoint = false;
-        if (lexeme.length() == 1 && lexeme.charAt(0) == '.') {
-            return false;
-        }
-        for (int i = 0; i < lexeme.length(); i++) {
-            char c = lexeme.charAt(i);
-            if (c == '.') {
-                if (hasDecimalPoint)
-                    return false; // More than one decimal point
-                hasDecimalPoint = true;
-            } else if (!Character.isDigit(c)) {
-                return false;
-            }
-        }
-        return hasDecimalPoint;
-    }
-
-    /**
-     * Checks if the given lexeme is a valid identifier.
-     * 
-     * @param lexeme The string to be checked.
-     * @return true if the lexeme is a valid identifier, false otherwise.
+     * @param accept The kind of lexeme, taken from the accepting state.
      */
-    private boolean isIdentifier(String lexeme) {
-        if (lexeme.isEmpty())
-            return false;
-        if (!Character.isLetter(lexeme.charAt(0)))
-            return false;
-        for (int i = 1; i < lexeme.length(); i++) {
-            char c = lexeme.charAt(i);
-            if (!Character.isLetterOrDigit(c))
-                return false;
+    private void findToken(byte accept) {
+        switch (accept) {
+            case ACCEPT_IDENT:
+                Tokeniser.TokenType keywordType = Tokeniser.getKeywordTokenType(source, tokenOffset, tokenLength);
+                if (keywordType != null) {
+                    tokenId = Tokeniser.getTokenCode(keywordType);
+                } else {
+                    tokenId = Tokeniser.getTokenCode(Tokeniser.TokenType.TIDEN);
+                }
+                break;
+            case ACCEPT_INT:
+                handleIntegerLiteral(new Lexeme(source, tokenOffset, tokenLength));
+                break;
+            case ACCEPT_FLOAT:
+                handleFloatLiteral(new Lexeme(source, tokenOffset, tokenLength));
+                break;
+            case ACCEPT_OPERATOR:
+                tokenId = Tokeniser.getTokenCode(Tokeniser.getOperatorTokenType(source, tokenOffset, tokenLength));
+                break;
+            default:
+                tokenId = Tokeniser.getTokenCode(Tokeniser.TokenType.TUNDF);
+                break;
         }
-        return true;
     }
 
     /**
      * Handles the processing of an integer literal.
      * 
-     * @param lexeme The string representation of the integer literal.
-     * @return A Token object representing the integer literal or an error token if
-     *         invalid.
+     * @param lexeme The integer literal as a view of the source.
+     * @implNote Sets the token to TILIT carrying the parsed value, or to TUNDF
+     *           with an error message if the literal is invalid.
      */
-    private Token handleIntegerLiteral(String lexeme) {
+    private void handleIntegerLiteral(Lexeme lexeme) {
+        tokenId = Tokeniser.getTokenCode(Tokeniser.TokenType.TUNDF);
         try {
-            long value = Long.parseLong(lexeme);
+            long value = lexeme.parseLong();
             if (value > Integer.MAX_VALUE) {
-                return new Token(Tokeniser.getTokenCode(Tokeniser.TokenType.TUNDF),
-                        "Integer Literal Overflow", tokenStartLine,
-                        tokenStartColumn);
+                tokenMessage = "Integer Literal Overflow";
+                return;
             }
-            return new Token(Tokeniser.getTokenCode(Tokeniser.TokenType.TILIT), lexeme, tokenStartLine,
-                    tokenStartColumn);
+            tokenId = Tokeniser.getTokenCode(Tokeniser.TokenType.TILIT);
+            tokenValue = value;
         } catch (NumberFormatException e) {
-            return new Token(Tokeniser.getTokenCode(Tokeniser.TokenType.TUNDF),
-                    "lexical error: Invalid Integer Literal", tokenStartLine,
-                    tokenStartColumn);
+            tokenMessage = "lexical error: Invalid Integer Literal";
         }
     }
 
     /**
      * Handles the processing of a float literal.
      * 
-     * @param lexeme The string representation of the float literal.
-     * @return A Token object representing the float literal or an error token if
-     *         invalid.
+     * @param lexeme The float literal as a view of the source.
+     * @implNote Sets the token to TFLIT carrying the parsed value, or to TUNDF
+     *           with an error message if the literal is invalid.
      */
-    private Token handleFloatLiteral(String lexeme) {
+    private void handleFloatLiteral(Lexeme lexeme) {
+        tokenId = Tokeniser.getTokenCode(Tokeniser.TokenType.TUNDF);
         try {
-            double value = Double.parseDouble(lexeme);
+            double value = lexeme.parseDouble();
             if (value > 1.7976931348623158e+308) {
-                return new Token(Tokeniser.getTokenCode(Tokeniser.TokenType.TUNDF), "Float Literal Overflow",
-                        tokenStartLine, tokenStartColumn);
+                tokenMessage = "Float Literal Overflow";
+                return;
             }
-            return new Token(Tokeniser.getTokenCode(Tokeniser.TokenType.TFLIT), lexeme, tokenStartLine,
-                    tokenStartColumn);
+            tokenId = Tokeniser.getTokenCode(Tokeniser.TokenType.TFLIT);
+            tokenValue = Double.doubleToRawLongBits(value);
         } catch (NumberFormatException e) {
-            return new Token(Tokeniser.getTokenCode(Tokeniser.TokenType.TUNDF), "Invalid Float Literal", tokenStartLine,
-                    tokenStartColumn);
-        }
-    }
-
-    /**
-     * Checks if the given character is a valid character for tokenisation.
-     * 
-     * @param ch The ASCII value of the character to check.
-     * @return true if the character is valid for tokenisation, false otherwise.
-     */
-    private boolean isValidChar(int ch) {
-        if ((ch < 33 || ch > 126) || (ch != 44 && ch != 91 && ch != 93 && ch != 40 && ch != 41 &&
-                ch != 61 && ch != 43 && ch != 45 && ch != 42 && ch != 47 && ch != 37 && ch != 94 &&
-                ch != 60 && ch != 62 && ch != 58 && ch != 59 && ch != 46)) {
-            return false;
+            tokenMessage = "Invalid Float Literal";
         }
-        return true;
     }
 
-    /**
-     * Updates the current line and column position based on the input character.
-     * 
-     * @param tempChar The character to process for position updating.
-     */
-    private void updatePosition(int tempChar) {
-        if (tempChar == 10) {
-            currentLine++;
-            currentColumn = 0;
-        } else {
-            currentColumn++;
-        }
-        outputController.outputToListing((char) tempChar, currentColumn);
+    public SourceBuffer getSource() {
+        return source;
     }
 }
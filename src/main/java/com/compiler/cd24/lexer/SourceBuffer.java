@@ -0,0 +1,366 @@
+package com.compiler.cd24.lexer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * SourceBuffer class
+ *
+ * This class holds the complete contents of a source file so the Scanner can
+ * address characters by index. Small files are read into a single byte array
+ * through a FileChannel, while large files are memory-mapped so the operating
+ * system pages them in on demand rather than copying them onto the heap.
+ *
+ * A source does not have to come from a file. It can also be built from text,
+ * a ByteBuffer or an InputStream already in memory, so a program can be
+ * compiled without first being written to disk.
+ *
+ * The searches used to skip whitespace and comments read eight bytes at a time
+ * as a long and test all of them at once with word-wide bit operations (SWAR),
+ * finishing the last few bytes one at a time. The start of every line is only
+ * indexed when a line or column is first needed, see LineIndex.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public class SourceBuffer {
+    // INFO: Files at or above this size are mapped instead of copied
+    private static final long MAP_THRESHOLD = 1L << 20;
+
+    // INFO: Reads a little-endian long from a byte array, so byte i of the word
+    // is bits 8i to 8i + 7
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long LINE_FEEDS = '\n' * ONES;
+    private static final long SPACES = ' ' * ONES;
+    private static final long TABS = '\t' * ONES;
+    private static final long RETURNS = '\r' * ONES;
+    private static final long SLASHES = '/' * ONES;
+    private static final long STARS = '*' * ONES;
+
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private final int length;
+    // INFO: Built the first time a line or column is asked for
+    private volatile LineIndex lineIndex;
+
+    private SourceBuffer(byte[] bytes) {
+        this.bytes = bytes;
+        this.buffer = null;
+        this.length = bytes.length;
+    }
+
+    private SourceBuffer(ByteBuffer buffer) {
+        this.bytes = null;
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.length = buffer.limit();
+    }
+
+    /**
+     * Loads the file at the given path into a new SourceBuffer.
+     *
+     * @param filePath The path to the source file.
+     * @return A SourceBuffer containing the whole file.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    public static SourceBuffer fromFile(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Source file too large: " + filePath);
+            }
+            if (size >= MAP_THRESHOLD) {
+                return new SourceBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+            byte[] block = new byte[(int) size];
+            ByteBuffer target = ByteBuffer.wrap(block);
+            while (target.hasRemaining() && channel.read(target) >= 0) {
+                // INFO: FileChannel.read may return short counts, keep filling the block
+            }
+            return new SourceBuffer(block);
+        }
+    }
+
+    /**
+     * Creates a SourceBuffer holding the given text, encoded as UTF-8 as it would
+     * be in a source file.
+     *
+     * @param text The program text.
+     * @return A SourceBuffer containing the text.
+     */
+    public static SourceBuffer fromText(CharSequence text) {
+        return new SourceBuffer(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a SourceBuffer over the remaining bytes of a ByteBuffer without
+     * copying them. The buffer's position and limit are not changed, but its
+     * contents must not be changed while the source is in use.
+     *
+     * @param buffer The bytes of the program.
+     * @return A SourceBuffer reading from the buffer.
+     */
+    public static SourceBuffer fromByteBuffer(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.limit() == buffer.array().length) {
+            return new SourceBuffer(buffer.array());
+        }
+        return new SourceBuffer(buffer.slice());
+    }
+
+    /**
+     * Reads an InputStream to its end into a new SourceBuffer. The stream is not
+     * closed.
+     *
+     * @param input The stream to read the program from.
+     * @return A SourceBuffer containing everything read from the stream.
+     * @throws IOException If the stream cannot be read.
+     */
+    public static SourceBuffer fromInputStream(InputStream input) throws IOException {
+        return new SourceBuffer(input.readAllBytes());
+    }
+
+    /**
+     * Creates a new heap SourceBuffer holding this source with one range
+     * replaced. This buffer is left unchanged.
+     *
+     * @param offset        The index of the first character to replace.
+     * @param removedLength The number of characters to remove.
+     * @param inserted      The characters to insert in their place.
+     * @return A SourceBuffer containing the edited source.
+     */
+    public SourceBuffer edit(int offset, int removedLength, byte[] inserted) {
+        if (offset < 0 || removedLength < 0 || offset + removedLength > length) {
+            throw new IndexOutOfBoundsException(
+                    "edit " + offset + "+" + removedLength + " outside source of length " + length);
+        }
+        int tail = length - offset - removedLength;
+        byte[] edited = new byte[offset + inserted.length + tail];
+        copyTo(0, edited, 0, offset);
+        System.arraycopy(inserted, 0, edited, offset, inserted.length);
+        copyTo(offset + removedLength, edited, offset + inserted.length, tail);
+        return new SourceBuffer(edited);
+    }
+
+    private void copyTo(int index, byte[] target, int targetIndex, int count) {
+        if (bytes != null) {
+            System.arraycopy(bytes, index, target, targetIndex, count);
+        } else {
+            buffer.get(index, target, targetIndex, count);
+        }
+    }
+
+    /**
+     * Returns the character at the given index.
+     *
+     * @param index The zero based offset into the source.
+     * @return The character as an unsigned byte value, or -1 if the index is past
+     *         the end of the source.
+     */
+    public int charAt(int index) {
+        if (index >= length) {
+            return -1;
+        }
+        if (bytes != null) {
+            return bytes[index] & 0xFF;
+        }
+        return buffer.get(index) & 0xFF;
+    }
+
+    /**
+     * Finds the first line feed at or after an index.
+     *
+     * @param from The index to start searching at.
+     * @return The index of the line feed, or -1 if there is none.
+     */
+    public int indexOfLineFeed(int from) {
+        int index = from;
+        for (; index + Long.BYTES <= length; index += Long.BYTES) {
+            long found = matches(wordAt(index), LINE_FEEDS);
+            if (found != 0) {
+                return index + firstByte(found);
+            }
+        }
+        for (; index < length; index++) {
+            if (charAt(index) == '\n') {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the end of a block comment whose body starts at an index.
+     *
+     * @param from The index of the first character after the opening /**.
+     * @return The index just past the closing **\/, or -1 if the comment is
+     *         never closed.
+     */
+    public int indexAfterCommentClose(int from) {
+        int index = from;
+        // INFO: Byte k of found is set when bytes k, k + 1 and k + 2 from index
+        // are '*', '*' and '/'
+        for (; index + 2 + Long.BYTES <= length; index += Long.BYTES) {
+            long found = matches(wordAt(index), STARS) & matches(wordAt(index + 1), STARS)
+                    & matches(wordAt(index + 2), SLASHES);
+            if (found != 0) {
+                return index + firstByte(found) + 3;
+            }
+        }
+        for (; index + 2 < length; index++) {
+            if (charAt(index) == '*' && charAt(index + 1) == '*' && charAt(index + 2) == '/') {
+                return index + 3;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first character at or after an index that is not a space, tab,
+     * carriage return or line feed.
+     *
+     * @param from The index to start searching at.
+     * @return The index of that character, or the length of the source if the
+     *         rest of the source is blank.
+     */
+    public int skipBlanks(int from) {
+        int index = from;
+        for (; index + Long.BYTES <= length; index += Long.BYTES) {
+            long word = wordAt(index);
+            long blanks = matches(word, SPACES) | matches(word, LINE_FEEDS) | matches(word, TABS)
+                    | matches(word, RETURNS);
+            long others = ~blanks & ~LOW_BITS;
+            if (others != 0) {
+                return index + firstByte(others);
+            }
+        }
+        for (; index < length; index++) {
+            int c = charAt(index);
+            if (c != ' ' && c != '\n' && c != '\t' && c != '\r') {
+                return index;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Counts the line feeds in a range of the source.
+     *
+     * @param start The index of the first character, inclusive.
+     * @param end   The index of the last character, exclusive.
+     * @return The number of line feeds in the range.
+     */
+    public int countLineFeeds(int start, int end) {
+        int count = 0;
+        int index = start;
+        for (; index + Long.BYTES <= end; index += Long.BYTES) {
+            count += Long.bitCount(matches(wordAt(index), LINE_FEEDS));
+        }
+        for (; index < end; index++) {
+            if (charAt(index) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the characters outside the ASCII range in a range of the source.
+     *
+     * @param start The index of the first character, inclusive.
+     * @param end   The index of the last character, exclusive.
+     * @return The number of characters above 127 in the range.
+     */
+    public int countNonAscii(int start, int end) {
+        int count = 0;
+        int index = start;
+        for (; index + Long.BYTES <= end; index += Long.BYTES) {
+            count += Long.bitCount(wordAt(index) & ~LOW_BITS);
+        }
+        for (; index < end; index++) {
+            if (charAt(index) > 127) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the line index of this source, building it on first use.
+     *
+     * @return The index of the start of every line.
+     */
+    public LineIndex getLineIndex() {
+        LineIndex index = lineIndex;
+        if (index == null) {
+            // INFO: Racing threads build equal indexes, so either one may be kept
+            index = new LineIndex(this);
+            lineIndex = index;
+        }
+        return index;
+    }
+
+    private long wordAt(int index) {
+        if (bytes != null) {
+            return (long) LONG_VIEW.get(bytes, index);
+        }
+        return buffer.getLong(index);
+    }
+
+    // INFO: Sets the top bit of each byte of word that equals the byte repeated
+    // in pattern, and clears every other bit. Unlike the shorter
+    // (x - ONES) & ~x trick this has no false positives above a match, so the
+    // result can also be counted.
+    private static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+    }
+
+    private static int firstByte(long found) {
+        return Long.numberOfTrailingZeros(found) >>> 3;
+    }
+
+    /**
+     * Copies a range of the source into a String.
+     *
+     * @param start The index of the first character, inclusive.
+     * @param end   The index of the last character, exclusive.
+     * @return The characters in the range.
+     */
+    public String substring(int start, int end) {
+        StringBuilder stringBuilder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            stringBuilder.append((char) charAt(i));
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * @return The number of characters in the source.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return true if the source is read through a ByteBuffer, such as a
+     *         memory-mapped file, rather than held in a heap array.
+     */
+    public boolean isMapped() {
+        return buffer != null;
+    }
+}
@@ -1,8 +1,5 @@
 package com.compiler.cd24.lexer;
 
-import java.util.Map;
-import java.util.HashMap;
-
 /**
  * Token class
  * 
@@ -16,30 +13,63 @@ import java.util.HashMap;
  */
 public class Token {
     private int tokenId;
-    private String lexeme;
+    private Tokeniser.TokenType type;
+    private Lexeme lexeme;
     private int line;
     private int col;
-
-    private static final Map<Integer, String> tokenNames = new HashMap<>();
-
-    static {
-        for (Tokeniser.TokenType type : Tokeniser.TokenType.values()) {
-            tokenNames.put(Tokeniser.getTokenCode(type), type.name());
-        }
-    }
+    // INFO: The parsed value of a TILIT, or the raw bits of a TFLIT's double
+    private long value;
+    // INFO: Where line and col are found, until they are first read
+    private SourceBuffer source;
+    private int offset;
 
     public Token() {
         this.tokenId = 0;
-        this.lexeme = "";
+        this.type = Tokeniser.TokenType.TTEOF;
+        this.lexeme = Lexeme.EMPTY;
         this.line = 0;
         this.col = 0;
     }
 
     public Token(int tokenId, String lexeme, int line, int col) {
+        this(tokenId, new Lexeme(lexeme), line, col);
+    }
+
+    public Token(int tokenId, Lexeme lexeme, int line, int col) {
+        this(tokenId, lexeme, line, col, 0);
+    }
+
+    public Token(int tokenId, Lexeme lexeme, int line, int col, long value) {
         this.tokenId = tokenId;
+        this.type = Tokeniser.getTokenType(tokenId);
         this.lexeme = lexeme;
         this.line = line;
         this.col = col;
+        this.value = value;
+    }
+
+    /**
+     * Creates a token whose line and column are found from its source offset the
+     * first time either is read, as most tokens are never asked for them.
+     *
+     * @param source The source the token was scanned from.
+     * @param offset The source index of the token's first character.
+     */
+    Token(int tokenId, Lexeme lexeme, SourceBuffer source, int offset, long value) {
+        this(tokenId, lexeme, 0, 0, value);
+        this.source = source;
+        this.offset = offset;
+    }
+
+    /**
+     * Finds the line and column from the source offset, if not done yet.
+     */
+    private void resolvePosition() {
+        if (source != null) {
+            line = TokenBuffer.lineOf(source, tokenId, offset);
+            col = TokenBuffer.colOf(source, tokenId, offset);
+            source = null;
+        }
     }
 
     /**
@@ -49,22 +79,33 @@ public class Token {
      * @return The name of the token, or "UNKNOWN" if the ID is not recognised
      */
     public static String resolveTokenName(int tokenId) {
-        return tokenNames.getOrDefault(tokenId, "UNKNOWN");
+        Tokeniser.TokenType type = Tokeniser.getTokenType(tokenId);
+        return type != null ? type.name() : "UNKNOWN";
     }
 
     @Override
     public String toString() {
+        resolvePosition();
         return String.format("Token[id=%d (%s), lexeme='%s', line=%d, col=%d]",
                 tokenId, resolveTokenName(tokenId), lexeme, line, col);
     }
 
+    /**
+     * @return The value of an integer literal token.
+     */
+    public long getIntegerValue() {
+        return value;
+    }
+
+    /**
+     * @return The value of a float literal token.
+     */
+    public double getFloatValue() {
+        return Double.longBitsToDouble(value);
+    }
+
     public Tokeniser.TokenType getType() {
-        for (Tokeniser.TokenType type : Tokeniser.TokenType.values()) {
-            if (Tokeniser.getTokenCode(type) == this.tokenId) {
-                return type;
-            }
-        }
-        return null;
+        return type;
     }
 
     // ------------------------- Getters and Setters ------------------------- //
@@ -73,30 +114,40 @@ public class Token {
     }
 
     public String getLexeme() {
+        return lexeme.toString();
+    }
+
+    public Lexeme getLexemeSlice() {
         return lexeme;
     }
 
     public int getLine() {
+        resolvePosition();
         return line;
     }
 
     public int getCol() {
+        resolvePosition();
         return col;
     }
 
     public void setTokenId(int tokenId) {
+        resolvePosition();
         this.tokenId = tokenId;
+        this.type = Tokeniser.getTokenType(tokenId);
     }
 
     public void setLexeme(String lexeme) {
-        this.lexeme = lexeme;
+        this.lexeme = new Lexeme(lexeme);
     }
 
     public void setLine(int line) {
+        resolvePosition();
         this.line = line;
     }
 
     public void setCol(int col) {
+        resolvePosition();
         this.col = col;
     }
 }
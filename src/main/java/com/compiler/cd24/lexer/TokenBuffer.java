@@ -0,0 +1,283 @@
+package com.compiler.cd24.lexer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TokenBuffer class
+ *
+ * This class stores a whole token stream in parallel primitive arrays instead
+ * of one Token object per token. Each token is described by its id and the
+ * range of the source it was read from. Lexemes are only turned into Strings,
+ * and lines and columns only worked out from the source's LineIndex, when they
+ * are asked for, so the buffer can hold millions of tokens and be walked again
+ * by later phases without further allocation.
+ *
+ * A string token's range runs from its opening quote to its closing quote, or
+ * to the end of the line for an unterminated string, while its lexeme is only
+ * the text between the quotes.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public class TokenBuffer {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final SourceBuffer source;
+    private int[] kind;
+    private int[] start;
+    private int[] length;
+    // INFO: Parsed literal values, see Token.getIntegerValue() and getFloatValue()
+    private long[] value;
+    private int size;
+    // INFO: Error tokens whose lexeme is a message rather than a source range
+    private final Map<Integer, String> messages = new HashMap<>();
+
+    public TokenBuffer(SourceBuffer source) {
+        this(source, INITIAL_CAPACITY);
+    }
+
+    public TokenBuffer(SourceBuffer source, int capacity) {
+        this.source = source;
+        capacity = Math.max(capacity, 1);
+        this.kind = new int[capacity];
+        this.start = new int[capacity];
+        this.length = new int[capacity];
+        this.value = new long[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Appends a token to the end of the buffer.
+     *
+     * @param tokenId The id of the token.
+     * @param offset  The source index the lexeme starts at.
+     * @param count   The number of source characters in the lexeme.
+     * @return The index of the new token.
+     */
+    public int add(int tokenId, int offset, int count) {
+        return add(tokenId, offset, count, 0);
+    }
+
+    /**
+     * Appends a literal token and its parsed value to the end of the buffer.
+     *
+     * @param tokenId   The id of the token.
+     * @param offset    The source index the lexeme starts at.
+     * @param count     The number of source characters in the lexeme.
+     * @param literal   The value of a TILIT, or the raw bits of a TFLIT's double.
+     * @return The index of the new token.
+     */
+    public int add(int tokenId, int offset, int count, long literal) {
+        if (size == kind.length) {
+            grow();
+        }
+        kind[size] = tokenId;
+        start[size] = offset;
+        length[size] = count;
+        value[size] = literal;
+        return size++;
+    }
+
+    /**
+     * Removes the tokens before an index, moving the rest to the front.
+     *
+     * @param index The index of the first token to keep.
+     */
+    void dropBefore(int index) {
+        int count = size - index;
+        System.arraycopy(kind, index, kind, 0, count);
+        System.arraycopy(start, index, start, 0, count);
+        System.arraycopy(length, index, length, 0, count);
+        System.arraycopy(value, index, value, 0, count);
+        if (!messages.isEmpty()) {
+            Map<Integer, String> kept = new HashMap<>();
+            for (Map.Entry<Integer, String> message : messages.entrySet()) {
+                if (message.getKey() >= index) {
+                    kept.put(message.getKey() - index, message.getValue());
+                }
+            }
+            messages.clear();
+            messages.putAll(kept);
+        }
+        size = count;
+    }
+
+    /**
+     * Replaces the lexeme of a token with a message, used for lexical errors.
+     *
+     * @param index   The index of the token.
+     * @param message The text to report as the token's lexeme.
+     */
+    public void setMessage(int index, String message) {
+        messages.put(index, message);
+    }
+
+    /**
+     * Appends a run of tokens from another buffer, moving them by a number of
+     * characters. Used to keep the tokens an edit did not touch.
+     *
+     * @param from        The buffer to copy from.
+     * @param fromIndex   The index of the first token to copy.
+     * @param count       The number of tokens to copy.
+     * @param offsetDelta The amount to add to each token's start.
+     */
+    void appendRange(TokenBuffer from, int fromIndex, int count, int offsetDelta) {
+        while (size + count > kind.length) {
+            grow();
+        }
+        System.arraycopy(from.kind, fromIndex, kind, size, count);
+        System.arraycopy(from.start, fromIndex, start, size, count);
+        System.arraycopy(from.length, fromIndex, length, size, count);
+        System.arraycopy(from.value, fromIndex, value, size, count);
+        if (offsetDelta != 0) {
+            for (int i = size; i < size + count; i++) {
+                start[i] += offsetDelta;
+            }
+        }
+        for (Map.Entry<Integer, String> message : from.messages.entrySet()) {
+            int index = message.getKey();
+            if (index >= fromIndex && index < fromIndex + count) {
+                messages.put(index - fromIndex + size, message.getValue());
+            }
+        }
+        size += count;
+    }
+
+    /**
+     * @param index The index of a token.
+     * @return true if the token's lexeme is an error message.
+     */
+    public boolean hasMessage(int index) {
+        return !messages.isEmpty() && messages.containsKey(index);
+    }
+
+    private void grow() {
+        int capacity = kind.length * 2;
+        kind = Arrays.copyOf(kind, capacity);
+        start = Arrays.copyOf(start, capacity);
+        length = Arrays.copyOf(length, capacity);
+        value = Arrays.copyOf(value, capacity);
+    }
+
+    /**
+     * Materialises the lexeme of a token.
+     *
+     * @param index The index of the token.
+     * @return The lexeme, or an empty String for keywords, operators and EOF.
+     */
+    public String lexeme(int index) {
+        return slice(index).toString();
+    }
+
+    /**
+     * Returns the lexeme of a token as a view of the source, without copying.
+     *
+     * @param index The index of the token.
+     * @return The lexeme, or Lexeme.EMPTY for keywords, operators and EOF.
+     */
+    public Lexeme slice(int index) {
+        if (!messages.isEmpty()) {
+            String message = messages.get(index);
+            if (message != null) {
+                return new Lexeme(message);
+            }
+        }
+        return sliceOf(source, kind[index], start[index], length[index]);
+    }
+
+    /**
+     * Builds the lexeme for a token read from the given source range. Only
+     * identifiers, literals, strings and undefined tokens carry their text.
+     */
+    static Lexeme sliceOf(SourceBuffer source, int tokenId, int offset, int count) {
+        if (tokenId < Tokeniser.getTokenCode(Tokeniser.TokenType.TIDEN)) {
+            return Lexeme.EMPTY;
+        }
+        if (tokenId == Tokeniser.getTokenCode(Tokeniser.TokenType.TSTRG)) {
+            return new Lexeme(source, offset + 1, count - 2);
+        }
+        return new Lexeme(source, offset, count);
+    }
+
+    /**
+     * Works out the line a token read from the given source index starts on.
+     *
+     * @return The line, or 0 for the EOF token.
+     */
+    static int lineOf(SourceBuffer source, int tokenId, int offset) {
+        if (tokenId == 0) {
+            return 0;
+        }
+        return source.getLineIndex().line(offset);
+    }
+
+    /**
+     * Works out the column a token read from the given source index starts on.
+     *
+     * @return The column, or 0 for the EOF token.
+     *
+     * @implNote A token other than a string at the very start of the source is
+     *           reported at column 0, as the Scanner always has.
+     */
+    static int colOf(SourceBuffer source, int tokenId, int offset) {
+        if (tokenId == 0 || (offset == 0 && source.charAt(0) != '"')) {
+            return 0;
+        }
+        return source.getLineIndex().column(offset);
+    }
+
+    /**
+     * Creates a standalone Token for the token at the given index.
+     *
+     * @param index The index of the token.
+     * @return A new Token holding the same information.
+     */
+    public Token toToken(int index) {
+        return new Token(kind[index], slice(index), source, start[index], value[index]);
+    }
+
+    // ------------------------- Getters ------------------------- //
+    public int size() {
+        return size;
+    }
+
+    public int kind(int index) {
+        return kind[index];
+    }
+
+    public Tokeniser.TokenType type(int index) {
+        return Tokeniser.getTokenType(kind[index]);
+    }
+
+    public int start(int index) {
+        return start[index];
+    }
+
+    public int length(int index) {
+        return length[index];
+    }
+
+    public long integerValue(int index) {
+        return value[index];
+    }
+
+    public double floatValue(int index) {
+        return Double.longBitsToDouble(value[index]);
+    }
+
+    public int line(int index) {
+        return lineOf(source, kind[index], start[index]);
+    }
+
+    public int col(int index) {
+        return colOf(source, kind[index], start[index]);
+    }
+
+    public SourceBuffer getSource() {
+        return source;
+    }
+}
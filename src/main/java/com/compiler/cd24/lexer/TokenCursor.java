@@ -0,0 +1,158 @@
+package com.compiler.cd24.lexer;
+
+import java.util.Objects;
+
+/**
+ * TokenCursor class
+ *
+ * This class walks a TokenBuffer one token at a time for the Parser. A cursor
+ * can either run over a buffer that has already been filled by
+ * Scanner.tokenise(), or pull tokens from a Scanner on demand, appending them
+ * to its own buffer so the source is still lexed in step with parsing. A
+ * streaming cursor can be bounded, keeping only the current token rather than
+ * every token it has read. Once the EOF token is reached the cursor stays on it.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public class TokenCursor {
+    private final TokenBuffer tokens;
+    private final Scanner scanner;
+    private int index;
+    private boolean bounded;
+
+    /**
+     * Constructs a cursor over a complete token buffer.
+     *
+     * @param tokens The buffer to walk, ending in an EOF token.
+     */
+    public TokenCursor(TokenBuffer tokens) {
+        this.tokens = tokens;
+        this.scanner = null;
+        this.index = 0;
+    }
+
+    /**
+     * Constructs a cursor over a complete token buffer, starting part way in.
+     *
+     * @param tokens The buffer to walk, ending in an EOF token.
+     * @param index  The index of the first token to read.
+     */
+    public TokenCursor(TokenBuffer tokens, int index) {
+        this.tokens = tokens;
+        this.scanner = null;
+        this.index = index;
+    }
+
+    /**
+     * Constructs a cursor that lexes lazily from a Scanner.
+     *
+     * @param scanner The Scanner to pull tokens from.
+     */
+    public TokenCursor(Scanner scanner) {
+        this.tokens = new TokenBuffer(scanner.getSource());
+        this.scanner = scanner;
+        this.index = 0;
+        scanner.scanInto(tokens);
+    }
+
+    /**
+     * Moves to the next token, lexing it first if the cursor is streaming.
+     */
+    public void advance() {
+        if (tokens.kind(index) == 0) {
+            return;
+        }
+        if (bounded) {
+            tokens.dropBefore(index + 1);
+            index = 0;
+            if (tokens.size() == 0) {
+                scanner.scanInto(tokens);
+            }
+            return;
+        }
+        index++;
+        if (index == tokens.size() && scanner != null) {
+            scanner.scanInto(tokens);
+        }
+    }
+
+    /**
+     * Drops each token of a streaming cursor once the cursor moves past it, so
+     * only the current token is held. A bounded cursor cannot seek back, and
+     * its index no longer counts the tokens read.
+     */
+    public void bound() {
+        if (scanner == null || bounded) {
+            return;
+        }
+        tokens.dropBefore(index);
+        index = 0;
+        bounded = true;
+    }
+
+    /**
+     * Moves to a token that has already been read. A streaming cursor can only
+     * seek within the tokens it has lexed so far.
+     *
+     * @param index The index of the token to move to.
+     */
+    public void seek(int index) {
+        this.index = Objects.checkIndex(index, tokens.size());
+    }
+
+    /**
+     * @return A standalone Token for the current position, used for error
+     *         reporting.
+     */
+    public Token toToken() {
+        return tokens.toToken(index);
+    }
+
+    // ------------------------- Getters ------------------------- //
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isStreaming() {
+        return scanner != null;
+    }
+
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    public int kind() {
+        return tokens.kind(index);
+    }
+
+    public Tokeniser.TokenType type() {
+        return tokens.type(index);
+    }
+
+    public String lexeme() {
+        return tokens.lexeme(index);
+    }
+
+    public Lexeme slice() {
+        return tokens.slice(index);
+    }
+
+    public long integerValue() {
+        return tokens.integerValue(index);
+    }
+
+    public double floatValue() {
+        return tokens.floatValue(index);
+    }
+
+    public int line() {
+        return tokens.line(index);
+    }
+
+    public int col() {
+        return tokens.col(index);
+    }
+}
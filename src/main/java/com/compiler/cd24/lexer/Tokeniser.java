@@ -1,6 +1,7 @@
 package com.compiler.cd24.lexer;
 
-import java.util.EnumMap;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,6 +19,7 @@ import java.util.Map;
  */
 public class Tokeniser {
 
+    // INFO: Token codes are the ordinals of this enum, keep the order stable
     public enum TokenType {
         TTEOF,
 
@@ -32,24 +34,20 @@ public class Tokeniser {
         TIDEN, TILIT, TFLIT, TSTRG, TUNDF
     }
 
-    private static final EnumMap<TokenType, Integer> tokenCodeTable = new EnumMap<>(TokenType.class);
+    private static final TokenType[] tokenTypeTable = TokenType.values();
     private static final Map<String, TokenType> keywordTable = new HashMap<>();
     private static final Map<String, TokenType> operatorTable = new HashMap<>();
 
-    static {
-        tokenCodeTable.put(TokenType.TTEOF, 0);
-        for (int i = 1; i <= 38; i++) {
-            tokenCodeTable.put(TokenType.values()[i], i);
-        }
-        for (int i = 39; i <= 63; i++) {
-            tokenCodeTable.put(TokenType.values()[i], i);
-        }
-        tokenCodeTable.put(TokenType.TIDEN, 64);
-        tokenCodeTable.put(TokenType.TILIT, 65);
-        tokenCodeTable.put(TokenType.TFLIT, 66);
-        tokenCodeTable.put(TokenType.TSTRG, 67);
-        tokenCodeTable.put(TokenType.TUNDF, 68);
+    // INFO: Keywords bucketed by length and then by lower case first letter, so a
+    // lexeme is only compared against the one or two keywords it could be
+    private static final int MAX_KEYWORD_LENGTH = 9;
+    private static final TokenType[][][] keywordBuckets = new TokenType[MAX_KEYWORD_LENGTH + 1][26][];
+    private static final byte[][] keywordSpellings = new byte[tokenTypeTable.length][];
+    // INFO: Operators indexed by their first character, one table per length
+    private static final TokenType[] singleOperatorTable = new TokenType[128];
+    private static final TokenType[] equalsOperatorTable = new TokenType[128];
 
+    static {
         keywordTable.put("cd24", TokenType.TCD24);
         keywordTable.put("constants", TokenType.TCONS);
         keywordTable.put("typedef", TokenType.TTYPD);
@@ -114,6 +112,24 @@ public class Tokeniser {
         operatorTable.put("-=", TokenType.TMNEQ);
         operatorTable.put("*=", TokenType.TSTEQ);
         operatorTable.put("/=", TokenType.TDVEQ);
+
+        for (Map.Entry<String, TokenType> entry : keywordTable.entrySet()) {
+            String keyword = entry.getKey();
+            TokenType[] bucket = keywordBuckets[keyword.length()][keyword.charAt(0) - 'a'];
+            int size = bucket == null ? 0 : bucket.length;
+            bucket = bucket == null ? new TokenType[1] : Arrays.copyOf(bucket, size + 1);
+            bucket[size] = entry.getValue();
+            keywordBuckets[keyword.length()][keyword.charAt(0) - 'a'] = bucket;
+            keywordSpellings[entry.getValue().ordinal()] = keyword.getBytes(StandardCharsets.US_ASCII);
+        }
+        for (Map.Entry<String, TokenType> entry : operatorTable.entrySet()) {
+            String operator = entry.getKey();
+            if (operator.length() == 1) {
+                singleOperatorTable[operator.charAt(0)] = entry.getValue();
+            } else {
+                equalsOperatorTable[operator.charAt(0)] = entry.getValue();
+            }
+        }
     }
 
     /**
@@ -123,7 +139,21 @@ public class Tokeniser {
      * @return The integer code associated with the given TokenType.
      */
     public static int getTokenCode(TokenType type) {
-        return tokenCodeTable.get(type);
+        return type.ordinal();
+    }
+
+    /**
+     * Retrieves the token type associated with a given integer code.
+     *
+     * @param tokenCode The code for which to retrieve the TokenType.
+     * @return The TokenType with the given code, or null if the code is out of
+     *         range.
+     */
+    public static TokenType getTokenType(int tokenCode) {
+        if (tokenCode < 0 || tokenCode >= tokenTypeTable.length) {
+            return null;
+        }
+        return tokenTypeTable[tokenCode];
     }
 
     /**
@@ -137,6 +167,66 @@ public class Tokeniser {
         return keywordTable.get(keyword.toLowerCase());
     }
 
+    /**
+     * Retrieves the TokenType of a keyword held in a range of the source, ignoring
+     * case, without creating a String.
+     *
+     * @param source The source holding the lexeme.
+     * @param offset The index of the first character of the lexeme.
+     * @param length The number of characters in the lexeme.
+     * @return The TokenType associated with the keyword, or null if the lexeme is
+     *         not a keyword.
+     */
+    public static TokenType getKeywordTokenType(SourceBuffer source, int offset, int length) {
+        if (length < 2 || length > MAX_KEYWORD_LENGTH) {
+            return null;
+        }
+        // INFO: Setting bit 5 lower cases an ASCII letter and leaves digits alone
+        int first = (source.charAt(offset) | 0x20) - 'a';
+        if (first < 0 || first >= 26) {
+            return null;
+        }
+        TokenType[] bucket = keywordBuckets[length][first];
+        if (bucket == null) {
+            return null;
+        }
+        for (TokenType candidate : bucket) {
+            byte[] spelling = keywordSpellings[candidate.ordinal()];
+            int i = 1;
+            while (i < length && (source.charAt(offset + i) | 0x20) == spelling[i]) {
+                i++;
+            }
+            if (i == length) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the TokenType of an operator held in a range of the source
+     * without creating a String.
+     *
+     * @param source The source holding the lexeme.
+     * @param offset The index of the first character of the lexeme.
+     * @param length The number of characters in the lexeme.
+     * @return The TokenType associated with the operator, or null if the lexeme
+     *         is not an operator.
+     */
+    public static TokenType getOperatorTokenType(SourceBuffer source, int offset, int length) {
+        int first = source.charAt(offset);
+        if (first < 0 || first >= 128) {
+            return null;
+        }
+        if (length == 1) {
+            return singleOperatorTable[first];
+        }
+        if (length == 2 && source.charAt(offset + 1) == '=') {
+            return equalsOperatorTable[first];
+        }
+        return null;
+    }
+
     /**
      * Retrieves the TokenType associated with a given operator string.
      *
@@ -0,0 +1,111 @@
+package com.compiler.cd24.parser;
+
+import com.compiler.cd24.lexer.Tokeniser;
+import com.compiler.cd24.util.Node;
+import com.compiler.cd24.util.NodeKind;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * LazyFunctionNode class
+ *
+ * This class is the NFUND node the Parser builds when function bodies are
+ * lazy. The parameters, return type and locals are parsed as usual, but the
+ * statements between begin and end are only skipped over, and the node records
+ * where they start. They are parsed by Parser.forceBodies(), or otherwise the
+ * first time the node's children are read, which Ast.of() does for the
+ * semantic analyser and code generator.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+final class LazyFunctionNode extends Node {
+    private Parser owner;
+    private int start;
+    private Node localsNode;
+    private Set<Tokeniser.TokenType> syncSet;
+    private int version;
+
+    LazyFunctionNode() {
+        super(NodeKind.NFUND, "");
+    }
+
+    /**
+     * Leaves the body to be parsed later.
+     *
+     * @param owner      The Parser that skipped the body.
+     * @param start      The index of the body's begin token.
+     * @param localsNode The function's locals, added before the statements.
+     * @param syncSet    The synchronisation set to parse the body with.
+     * @param version    The version of the owner's symbol table to parse against.
+     */
+    void defer(Parser owner, int start, Node localsNode, Set<Tokeniser.TokenType> syncSet, int version) {
+        this.owner = owner;
+        this.start = start;
+        this.localsNode = localsNode;
+        this.syncSet = EnumSet.copyOf(syncSet);
+        this.version = version;
+    }
+
+    /**
+     * Parses the body now, if it has not been parsed yet. Its syntax errors are
+     * reported to the owner's OutputController.
+     *
+     * @throws ParseException If the body cannot be parsed to its end, as the
+     *                        whole parse would have failed without lazy bodies.
+     */
+    void force() throws ParseException {
+        if (owner == null) {
+            return;
+        }
+        Parser parser = owner.deferredBodyParser(start, version);
+        Node locals = localsNode;
+        Set<Tokeniser.TokenType> bodySyncSet = syncSet;
+        owner = null;
+        localsNode = null;
+        syncSet = null;
+        parser.funcStatements(this, locals, bodySyncSet);
+    }
+
+    private void parseBody() {
+        try {
+            force();
+        } catch (ParseException e) {
+            // INFO: Only reached when the body was not forced by Parser.forceBodies()
+            addError(e.getMessage());
+        }
+    }
+
+    @Override
+    public void addChild(Node child) {
+        parseBody();
+        super.addChild(child);
+    }
+
+    @Override
+    public List<Node> getChildren() {
+        parseBody();
+        return super.getChildren();
+    }
+
+    @Override
+    public int getChildCount() {
+        parseBody();
+        return super.getChildCount();
+    }
+
+    @Override
+    public Node getChild(int index) {
+        parseBody();
+        return super.getChild(index);
+    }
+
+    @Override
+    public void setChildren(List<Node> children) {
+        parseBody();
+        super.setChildren(children);
+    }
+}
@@ -0,0 +1,303 @@
+package com.compiler.cd24.parser;
+
+import com.compiler.cd24.lexer.Token;
+import com.compiler.cd24.lexer.TokenBuffer;
+import com.compiler.cd24.lexer.TokenCursor;
+import com.compiler.cd24.lexer.Tokeniser;
+import com.compiler.cd24.semantic.SymbolTable;
+import com.compiler.cd24.semantic.SymbolTableEntry;
+import com.compiler.cd24.util.NameTable;
+import com.compiler.cd24.util.Node;
+import com.compiler.cd24.util.OutputController;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * ParallelFunctionParser class
+ *
+ * This class parses the function definitions of a program on a ForkJoinPool.
+ * A skim over the token buffer first finds where each function starts by
+ * counting the begin, for, if and do tokens that are closed by an end, as a
+ * switch closes through its own begin. The skim also interns every identifier
+ * from the first function to EOF, so the NameTable is only read while the
+ * functions are parsed. Each function is then parsed by its own Parser, which
+ * reads through to the symbol table as it was before the first function and
+ * records the entries it enters, the errors it reports and the names it looks
+ * up.
+ *
+ * The functions are only guesses until the Parser commits them in order. A
+ * function is kept if it starts where the previous one ended, reported no
+ * syntax errors, and none of the names it looked up were entered by an earlier
+ * function. Any other function is parsed again in sequence, so the tree, the
+ * symbol table and the errors are the same as a sequential parse would give.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+final class ParallelFunctionParser {
+    private ParallelFunctionParser() {
+    }
+
+    /**
+     * Starts parsing every function that can be found from a position on the
+     * pool. Each function must be joined before it is committed.
+     *
+     * @param tokens      The complete token buffer.
+     * @param start       The index of the first function's TFUNC token.
+     * @param names       The NameTable shared with the Parser.
+     * @param symbolTable The symbol table as it is before the first function,
+     *                    which must not change while the functions are parsed.
+     * @param syncSet     The synchronisation set passed to the functions.
+     * @param pool        The pool to parse on.
+     * @return The functions in source order, empty if there are too few to be
+     *         worth parsing in parallel.
+     */
+    static List<Function> parse(TokenBuffer tokens, int start, NameTable names, SymbolTable symbolTable,
+            Set<Tokeniser.TokenType> syncSet, ForkJoinPool pool) {
+        List<Integer> starts = skim(tokens, start, names);
+        List<Function> functions = new ArrayList<>(starts.size());
+        if (starts.size() < 2) {
+            return functions;
+        }
+        for (int functionStart : starts) {
+            Function function = new Function(tokens, functionStart, names, symbolTable, syncSet);
+            function.task = pool.submit(function::parse);
+            functions.add(function);
+        }
+        return functions;
+    }
+
+    /**
+     * Cancels the functions that have not started yet, once the Parser has no
+     * more use for them.
+     */
+    static void cancel(List<Function> functions) {
+        for (Function function : functions) {
+            function.task.cancel(false);
+        }
+    }
+
+    /**
+     * Finds the start of each function in a run of functions. The skim stops
+     * looking for functions at the first one whose end it cannot find, which is
+     * still parsed, but interns identifiers all the way to EOF in case a function
+     * is read further than the skim expected.
+     */
+    private static List<Integer> skim(TokenBuffer tokens, int start, NameTable names) {
+        List<Integer> starts = new ArrayList<>();
+        boolean skimming = true;
+        // INFO: Open blocks in the current function, or -1 between functions
+        int depth = -1;
+        for (int i = start; tokens.kind(i) != 0; i++) {
+            Tokeniser.TokenType type = tokens.type(i);
+            if (type == Tokeniser.TokenType.TIDEN) {
+                names.intern(tokens.slice(i));
+            }
+            if (!skimming) {
+                continue;
+            }
+            if (depth < 0) {
+                if (type == Tokeniser.TokenType.TFUNC) {
+                    starts.add(i);
+                    depth = 0;
+                } else {
+                    skimming = false;
+                }
+                continue;
+            }
+            switch (type) {
+                case TFUNC:
+                case TMAIN:
+                    skimming = false;
+                    break;
+                case TBEGN:
+                case TTFOR:
+                case TIFTH:
+                case TTTDO:
+                    depth++;
+                    break;
+                case TTEND:
+                    depth--;
+                    if (depth == 0) {
+                        depth = -1;
+                    } else if (depth < 0) {
+                        skimming = false;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * One function parsed ahead of the Parser, and everything it changed.
+     */
+    static final class Function {
+        private final TokenCursor tokens;
+        private final int start;
+        private final RecordingSymbolTable symbolTable;
+        private final RecordingOutput output;
+        private final EnumSet<Tokeniser.TokenType> syncSet;
+        private final Parser parser;
+        private ForkJoinTask<?> task;
+        private Node node;
+        private int end;
+        private boolean failed;
+
+        Function(TokenBuffer tokens, int start, NameTable names, SymbolTable symbolTable,
+                Set<Tokeniser.TokenType> syncSet) {
+            this.tokens = new TokenCursor(tokens, start);
+            this.start = start;
+            this.symbolTable = new RecordingSymbolTable(symbolTable);
+            this.output = new RecordingOutput();
+            this.syncSet = EnumSet.copyOf(syncSet);
+            this.parser = new Parser(this.tokens, output, names, this.symbolTable);
+        }
+
+        private void parse() {
+            try {
+                node = parser.parseFunction(syncSet);
+                end = tokens.getIndex();
+                failed = output.hasParseErrors;
+            } catch (ParseException | RuntimeException e) {
+                // INFO: The sequential parse reports whatever went wrong
+                failed = true;
+            }
+        }
+
+        /**
+         * Waits for the function to be parsed. Must be called before any other
+         * method but getStart().
+         */
+        void join() {
+            task.join();
+        }
+
+        /**
+         * @param current  The symbol table the Parser has built so far.
+         * @param snapshot The symbol table the function was parsed against.
+         * @return true if the function was parsed from the same state the Parser
+         *         would parse it from.
+         */
+        boolean isValid(SymbolTable current, SymbolTable snapshot) {
+            if (failed) {
+                return false;
+            }
+            BitSet queried = symbolTable.queried;
+            for (int id = queried.nextSetBit(0); id >= 0; id = queried.nextSetBit(id + 1)) {
+                if (current.find(id) != snapshot.find(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Applies the function's changes to the Parser's state.
+         */
+        void replay(SymbolTable current, OutputController outputController, Set<Tokeniser.TokenType> currentSyncSet) {
+            for (int i = 0; i < symbolTable.entered.size(); i++) {
+                current.enter(symbolTable.enteredIds.get(i), symbolTable.entered.get(i));
+            }
+            for (SemanticError error : output.semanticErrors) {
+                outputController.addSemanticError(error.description, error.col, error.line);
+            }
+            currentSyncSet.addAll(syncSet);
+        }
+
+        // ------------------------- Getters ------------------------- //
+        int getStart() {
+            return start;
+        }
+
+        int getEnd() {
+            return end;
+        }
+
+        Node getNode() {
+            return node;
+        }
+
+        SymbolTableEntry getCurrentEntry() {
+            return parser.getCurrentEntry();
+        }
+    }
+
+    /**
+     * A symbol table layered over a shared one, which records the names looked
+     * up in it and the entries entered into it. Entries are only entered into
+     * the top layer, which holds just the function's own entries, so the shared
+     * table is never changed.
+     */
+    private static final class RecordingSymbolTable extends SymbolTable {
+        private final SymbolTable base;
+        private final Map<Integer, SymbolTableEntry> own = new HashMap<>();
+        private final BitSet queried = new BitSet();
+        // INFO: Entries can be renamed after they are entered, so their ids are kept
+        private final List<SymbolTableEntry> entered = new ArrayList<>();
+        private final List<Integer> enteredIds = new ArrayList<>();
+
+        RecordingSymbolTable(SymbolTable base) {
+            super(base.getNameTable(), 0);
+            this.base = base;
+        }
+
+        @Override
+        public void enter(int nameId, SymbolTableEntry symbolTableEntry) {
+            own.put(nameId, symbolTableEntry);
+            entered.add(symbolTableEntry);
+            enteredIds.add(nameId);
+        }
+
+        @Override
+        public SymbolTableEntry find(int nameId) {
+            if (nameId < 0) {
+                return null;
+            }
+            queried.set(nameId);
+            SymbolTableEntry entry = own.get(nameId);
+            return entry != null ? entry : base.find(nameId);
+        }
+    }
+
+    /**
+     * Holds the errors reported while parsing a function until it is committed.
+     */
+    private static final class RecordingOutput extends OutputController {
+        private final List<SemanticError> semanticErrors = new ArrayList<>();
+        private boolean hasParseErrors;
+
+        @Override
+        public void addParseError(String errorDescription, Token currentToken, Node parentNode) {
+            hasParseErrors = true;
+        }
+
+        @Override
+        public void addSemanticError(String errorDescription, int col, int line) {
+            semanticErrors.add(new SemanticError(errorDescription, col, line));
+        }
+    }
+
+    private static final class SemanticError {
+        private final String description;
+        private final int col;
+        private final int line;
+
+        SemanticError(String description, int col, int line) {
+            this.description = description;
+            this.col = col;
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.compiler.cd24.parser;
+
+import com.compiler.cd24.util.Node;
+
+/**
+ * ParseListener interface
+ *
+ * Receives a program from a Parser as it is parsed, for tools that only need
+ * one pass over it. Once a listener is set, the Parser no longer builds the
+ * abstract syntax tree and parse() returns null.
+ *
+ * Nodes are reported in pre-order through enterNode() and exitNode(). The
+ * Parser reports a part of the tree once it can no longer change: the globals
+ * as a whole, then each function, then each statement of the main body, and
+ * drops it afterwards. So memory grows with the largest function or main
+ * statement rather than with the program. The NFUNCS and NSTATS nodes that
+ * chain functions and main statements together are all reported with one
+ * shared node. The NPROG and NMAIN nodes are entered before their children are
+ * parsed, and a syntax error found later can still change NMAIN's kind to
+ * NUNDEF by the time it is exited.
+ *
+ * An error is reported once the part it was found in has been entered, right
+ * after the part's root node, so it always comes between the enterNode() and
+ * exitNode() of a node that contains it. A Parser reading from a Scanner holds
+ * only the current token while a listener is set.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public interface ParseListener {
+    /**
+     * Called before a node's children are reported.
+     *
+     * @param node The node. Its children are reported by the calls that follow
+     *             and should not be read from it.
+     */
+    void enterNode(Node node);
+
+    /**
+     * Called after a node's children have been reported.
+     *
+     * @param node The node.
+     */
+    void exitNode(Node node);
+
+    /**
+     * Called for each syntax or semantic error the Parser finds.
+     *
+     * @param description What was wrong.
+     * @param line        The line the error was found on.
+     * @param col         The column the error was found on.
+     */
+    void error(String description, int line, int col);
+}
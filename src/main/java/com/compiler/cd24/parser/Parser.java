@@ -1,17 +1,26 @@
 package com.compiler.cd24.parser;
 
+import com.compiler.cd24.lexer.Lexeme;
 import com.compiler.cd24.lexer.Scanner;
-import com.compiler.cd24.lexer.Token;
+import com.compiler.cd24.lexer.TokenBuffer;
+import com.compiler.cd24.lexer.TokenCursor;
 import com.compiler.cd24.lexer.Tokeniser;
 import com.compiler.cd24.semantic.SymbolTable;
 import com.compiler.cd24.semantic.SymbolTableEntry;
 import com.compiler.cd24.semantic.SymbolType;
 import com.compiler.cd24.util.DataType;
+import com.compiler.cd24.util.NameTable;
 import com.compiler.cd24.util.Node;
+import com.compiler.cd24.util.NodeKind;
 import com.compiler.cd24.util.OutputController;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Parser class
@@ -20,6 +29,27 @@ import java.util.Set;
  * It takes tokens from a Scanner and produces an abstract syntax tree (AST).
  * The Parser handles syntactic analysis, builds the AST, and performs error
  * handling and recovery.
+ *
+ * Lists and chains of binary operators are parsed in loops, building the same
+ * right-nested nodes the grammar's right-recursive rules describe, so the
+ * stack only grows with nesting such as parentheses and statement bodies, not
+ * with the length of the program.
+ *
+ * Rules that build no node of their own, such as optional sections or a
+ * statement's choice of form, return the node of the rule they matched, or
+ * null when they matched nothing, which Node.addChild() ignores.
+ * 
+ * Where a rule's lookahead agrees with the grammar, it is tested against a
+ * FIRST set in GrammarSets, which is generated from Documentation/Grammar.txt
+ * by GrammarGenerator on every build. The grammar is not LL(1), so the
+ * other choices are made by hand.
+ *
+ * Given a ForkJoinPool and a complete TokenBuffer, the function definitions are
+ * parsed on the pool by a ParallelFunctionParser and committed in source
+ * order, falling back to the sequential parse for any function that may
+ * depend on an earlier one. Function bodies can instead be left unparsed until
+ * they are needed, see setLazyFunctionBodies(). A ParseListener can also be
+ * given the tree as it is parsed instead of the Parser building it.
  * 
  * Date: 2024-09-27
  *
@@ -27,104 +57,278 @@ import java.util.Set;
  * @version 1.0
  */
 public class Parser {
-    private final Scanner scanner;
-    private Token currentToken;
+    // INFO: Binary operators and the nodes they build, by precedence from lowest
+    private static final Tokeniser.TokenType[][] OPERATOR_TOKENS = {
+            { Tokeniser.TokenType.TPLUS, Tokeniser.TokenType.TMINS },
+            { Tokeniser.TokenType.TSTAR, Tokeniser.TokenType.TDIVD, Tokeniser.TokenType.TPERC },
+            { Tokeniser.TokenType.TCART } };
+    private static final NodeKind[][] OPERATOR_NODES = {
+            { NodeKind.NADD, NodeKind.NSUB },
+            { NodeKind.NMUL, NodeKind.NDIV, NodeKind.NMOD },
+            { NodeKind.NPOW } };
+
+    // INFO: Synchronisation sets added by each rule. They are never modified, and
+    // EnumSet.addAll() merges them into the set in use as a bitwise or
+    private static final EnumSet<Tokeniser.TokenType> PROGRAM_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TCONS, Tokeniser.TokenType.TTYPD, Tokeniser.TokenType.TARRD, Tokeniser.TokenType.TMAIN,
+            Tokeniser.TokenType.TBEGN);
+    private static final EnumSet<Tokeniser.TokenType> GLOBALS_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TFUNC, Tokeniser.TokenType.TMAIN);
+    private static final EnumSet<Tokeniser.TokenType> CONSTS_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TTYPD, Tokeniser.TokenType.TARRD, Tokeniser.TokenType.TMAIN);
+    private static final EnumSet<Tokeniser.TokenType> INIT_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TCOMA, Tokeniser.TokenType.TTYPD, Tokeniser.TokenType.TARRD, Tokeniser.TokenType.TMAIN);
+    private static final EnumSet<Tokeniser.TokenType> TYPE_LIST_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TARRD, Tokeniser.TokenType.TFUNC, Tokeniser.TokenType.TMAIN);
+    private static final EnumSet<Tokeniser.TokenType> TYPE_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TIDEN, Tokeniser.TokenType.TARRD, Tokeniser.TokenType.TFUNC, Tokeniser.TokenType.TMAIN);
+    private static final EnumSet<Tokeniser.TokenType> FUNC_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TFUNC, Tokeniser.TokenType.TTEND, Tokeniser.TokenType.TMAIN, Tokeniser.TokenType.TCD24);
+    private static final EnumSet<Tokeniser.TokenType> MAIN_BODY_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TTEND, Tokeniser.TokenType.TCD24);
+    private static final EnumSet<Tokeniser.TokenType> STATEMENT_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TSEMI, Tokeniser.TokenType.TTEND, Tokeniser.TokenType.TELSE, Tokeniser.TokenType.TELIF,
+            Tokeniser.TokenType.TIDEN, Tokeniser.TokenType.TTFOR, Tokeniser.TokenType.TIFTH, Tokeniser.TokenType.TSWTH,
+            Tokeniser.TokenType.TTTDO, Tokeniser.TokenType.TREPT, Tokeniser.TokenType.TINPT, Tokeniser.TokenType.TPRNT,
+            Tokeniser.TokenType.TPRLN, Tokeniser.TokenType.TRETN);
+    private static final EnumSet<Tokeniser.TokenType> ASSIGN_OP_SYNC = EnumSet.of(
+            Tokeniser.TokenType.TNOTT, Tokeniser.TokenType.TIDEN, Tokeniser.TokenType.TILIT, Tokeniser.TokenType.TFLIT,
+            Tokeniser.TokenType.TTRUE, Tokeniser.TokenType.TFALS);
+
+    private final TokenCursor tokens;
     private Node rootNode;
     private OutputController outputController;
+    private NameTable names;
     private SymbolTable symbolTable;
     private SymbolTableEntry currentEntry;
-    private String programIdentifier;
+    private Lexeme programIdentifier;
+    private final List<EnumSet<Tokeniser.TokenType>> statementSyncSets = new ArrayList<>();
+    private int statementDepth;
+    private ForkJoinPool functionPool;
+    private boolean lazyFunctionBodies;
+    private final List<LazyFunctionNode> deferredBodies = new ArrayList<>();
+    private ParseListener listener;
+    // INFO: Errors found in the part being parsed, reported once it is entered
+    private final List<ListenerError> listenerErrors = new ArrayList<>();
+    // INFO: Shared by every link of the function and main statement chains
+    private Node functionLink;
+    private Node statementLink;
 
     public Parser() {
-        this.scanner = null;
-        this.currentToken = null;
+        this.tokens = null;
         this.rootNode = null;
         this.outputController = null;
-        this.symbolTable = new SymbolTable();
+        this.names = new NameTable();
+        this.symbolTable = new SymbolTable(names);
         this.currentEntry = new SymbolTableEntry();
-        this.programIdentifier = "";
+        this.programIdentifier = Lexeme.EMPTY;
 
     }
 
     public Parser(Scanner scanner, OutputController outputController) {
-        this.scanner = scanner;
-        this.currentToken = scanner.nextToken();
+        this(new TokenCursor(scanner), outputController);
+    }
+
+    public Parser(TokenBuffer tokenBuffer, OutputController outputController) {
+        this(new TokenCursor(tokenBuffer), outputController);
+    }
+
+    public Parser(TokenCursor tokens, OutputController outputController) {
+        this(tokens, outputController, new NameTable());
+    }
+
+    private Parser(TokenCursor tokens, OutputController outputController, NameTable names) {
+        this(tokens, outputController, names, new SymbolTable(names));
+    }
+
+    Parser(TokenCursor tokens, OutputController outputController, NameTable names, SymbolTable symbolTable) {
+        this.tokens = tokens;
         this.rootNode = null;
         this.outputController = outputController;
-        this.symbolTable = new SymbolTable();
+        this.names = names;
+        this.symbolTable = symbolTable;
         this.currentEntry = new SymbolTableEntry();
-        this.programIdentifier = "";
+        this.programIdentifier = Lexeme.EMPTY;
     }
 
     private void moveToNextValidToken(Set<Tokeniser.TokenType> syncSet) throws ParseException {
         this.currentEntry = null;
-        while (!syncSet.contains(currentToken.getType()) &&
-                currentToken.getType() != Tokeniser.TokenType.TTEOF) {
-            currentToken = scanner.nextToken();
+        while (!syncSet.contains(tokens.type()) &&
+                tokens.type() != Tokeniser.TokenType.TTEOF) {
+            tokens.advance();
         }
-        if (currentToken.getType() == Tokeniser.TokenType.TTEOF) {
+        if (tokens.type() == Tokeniser.TokenType.TTEOF) {
             throw new ParseException("Fatal Error: Reached EOF while synchronising.");
         }
     }
 
     private boolean consume(Tokeniser.TokenType expectedType, Node parentNode, Set<Tokeniser.TokenType> syncSet)
             throws ParseException {
-        if (currentToken.getType() == expectedType) {
-            Token consumedToken = currentToken;
-            if (parentNode != null && (consumedToken.getType() == Tokeniser.TokenType.TIDEN
-                    || consumedToken.getType() == Tokeniser.TokenType.TILIT
-                    || consumedToken.getType() == Tokeniser.TokenType.TFLIT)) {
-                parentNode.setValue(consumedToken.getLexeme());
-                parentNode.setLine(consumedToken.getLine());
-                parentNode.setCol(consumedToken.getCol());
+        if (tokens.type() == expectedType) {
+            if (parentNode != null && expectedType == Tokeniser.TokenType.TIDEN) {
+                Lexeme name = tokens.slice();
+                parentNode.setName(name, names.intern(name));
+                parentNode.setLine(tokens.line());
+                parentNode.setCol(tokens.col());
+            } else if (parentNode != null && expectedType == Tokeniser.TokenType.TILIT) {
+                parentNode.setValue(tokens.slice(), tokens.integerValue());
+                parentNode.setLine(tokens.line());
+                parentNode.setCol(tokens.col());
+            } else if (parentNode != null && expectedType == Tokeniser.TokenType.TFLIT) {
+                parentNode.setValue(tokens.slice(), tokens.floatValue());
+                parentNode.setLine(tokens.line());
+                parentNode.setCol(tokens.col());
             }
-            currentToken = scanner.nextToken();
+            accept();
             return false;
         } else {
-            String errorDescription = "Expected '" + expectedType + "', but found '" + currentToken.getType() + "'";
-            outputController.addParseError(errorDescription, currentToken, parentNode);
+            String errorDescription = "Expected '" + expectedType + "', but found '" + tokens.type() + "'";
+            outputController.addParseError(errorDescription, tokens.toToken(), parentNode);
+            reportError(errorDescription, tokens.line(), tokens.col());
 
             if (parentNode != null) {
-                parentNode.setType("NUNDEF");
+                parentNode.setKind(NodeKind.NUNDEF);
             } else {
-                parentNode = new Node("NUNDEF", "");
+                parentNode = new Node(NodeKind.NUNDEF, "");
             }
             if (syncSet == null || syncSet.isEmpty()) {
                 throw new ParseException("Fatal Error: Unable to synchronise.");
             }
-            parentNode.setLine(currentToken.getLine());
-            parentNode.setCol(currentToken.getCol());
+            parentNode.setLine(tokens.line());
+            parentNode.setCol(tokens.col());
         }
-        return parentNode.getType().equals("NUNDEF");
+        return parentNode.getKind() == NodeKind.NUNDEF;
     }
 
     private boolean match(Tokeniser.TokenType expectedType) throws ParseException {
-        return currentToken.getType() == expectedType;
+        return tokens.type() == expectedType;
+    }
+
+    /**
+     * @param expectedTypes A set of token types, usually a FIRST set from
+     *                      GrammarSets.
+     * @return true if the current token is one of the types.
+     */
+    private boolean matchAny(Set<Tokeniser.TokenType> expectedTypes) {
+        return expectedTypes.contains(tokens.type());
     }
 
+    /**
+     * Consumes a token for a rule that builds no node of its own. A node is only
+     * created if the token is missing, to carry the syntax error.
+     *
+     * @param expectedType The expected token type.
+     * @param syncSet      The synchronisation set.
+     * @return null if the token was consumed, otherwise a new NUNDEF node.
+     */
+    private Node expect(Tokeniser.TokenType expectedType, Set<Tokeniser.TokenType> syncSet)
+            throws ParseException {
+        if (match(expectedType)) {
+            accept();
+            return null;
+        }
+        Node node = new Node(NodeKind.SPECIAL, "");
+        consume(expectedType, node, syncSet);
+        return node;
+    }
+
+    /**
+     * Moves past the current token.
+     */
+    private void accept() {
+        tokens.advance();
+    }
+
+    private void reportError(String description, int line, int col) {
+        if (listener != null) {
+            listenerErrors.add(new ListenerError(description, line, col));
+        }
+    }
+
+    /**
+     * Gives the listener the errors found since the last call, once the node
+     * they belong under has been entered.
+     */
+    private void reportErrors() {
+        for (ListenerError error : listenerErrors) {
+            listener.error(error.description, error.line, error.col);
+        }
+        listenerErrors.clear();
+    }
+
+    /**
+     * Reports a finished subtree to the listener in pre-order. The tree is
+     * walked with an explicit stack, so a tree of any depth can be reported.
+     *
+     * @param root The root of the subtree, or null to report nothing.
+     */
+    private void report(Node root) {
+        if (root == null) {
+            return;
+        }
+        Deque<Node> nodes = new ArrayDeque<>();
+        int[] nextChild = new int[16];
+        listener.enterNode(root);
+        reportErrors();
+        nodes.push(root);
+        nextChild[0] = 0;
+        while (!nodes.isEmpty()) {
+            Node node = nodes.peek();
+            int depth = nodes.size() - 1;
+            if (nextChild[depth] < node.getChildCount()) {
+                Node child = node.getChild(nextChild[depth]++);
+                listener.enterNode(child);
+                if (depth + 1 == nextChild.length) {
+                    nextChild = Arrays.copyOf(nextChild, nextChild.length * 2);
+                }
+                nodes.push(child);
+                nextChild[depth + 1] = 0;
+            } else {
+                listener.exitNode(node);
+                nodes.pop();
+            }
+        }
+    }
+
+    /**
+     * @return The root of the tree, or null if a ParseListener was given it.
+     */
     public Node parse() throws ParseException {
-        rootNode = program();
-        return rootNode;
+        if (listener == null) {
+            rootNode = program();
+            return rootNode;
+        }
+        try {
+            report(program());
+        } finally {
+            // INFO: Errors left when no node is reported, or the parse fails
+            reportErrors();
+        }
+        return null;
     }
 
     private Node program() throws ParseException {
-        Node node = new Node("NPROG", "");
-        Set<Tokeniser.TokenType> programSyncSet = new HashSet<>(Arrays.asList(
-                Tokeniser.TokenType.TCONS,
-                Tokeniser.TokenType.TTYPD,
-                Tokeniser.TokenType.TARRD,
-                Tokeniser.TokenType.TMAIN,
-                Tokeniser.TokenType.TBEGN));
+        Node node = new Node(NodeKind.NPROG, "");
+        Set<Tokeniser.TokenType> programSyncSet = EnumSet.copyOf(PROGRAM_SYNC);
 
         if (consume(Tokeniser.TokenType.TCD24, node, programSyncSet)) {
             moveToNextValidToken(programSyncSet);
             return node;
         }
-        this.programIdentifier = currentToken.getLexeme();
+        this.programIdentifier = tokens.slice();
         if (consume(Tokeniser.TokenType.TIDEN, node, programSyncSet)) {
             moveToNextValidToken(programSyncSet);
             return node;
         }
+        if (listener != null) {
+            listener.enterNode(node);
+            report(globals(programSyncSet));
+            funcs(programSyncSet);
+            report(mainBody(programSyncSet));
+            reportErrors();
+            listener.exitNode(node);
+            return null;
+        }
         node.addChild(globals(programSyncSet));
         node.addChild(funcs(programSyncSet));
         node.addChild(mainBody(programSyncSet));
@@ -132,45 +336,29 @@ public class Parser {
     }
 
     private Node globals(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NGLOB", "");
-        syncSet.addAll(Arrays.asList(Tokeniser.TokenType.TFUNC,
-                Tokeniser.TokenType.TMAIN));
+        Node node = new Node(NodeKind.NGLOB, "");
+        syncSet.addAll(GLOBALS_SYNC);
         node.addChild(consts(syncSet));
         node.addChild(types(syncSet));
-        Node arraysNode = arrays(syncSet);
-        if (!arraysNode.isSpecial()) {
-            node.addChild(arraysNode);
-        }
+        node.addChild(arrays(syncSet));
         return node;
     }
 
     private Node consts(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        syncSet.addAll(Arrays.asList(
-                Tokeniser.TokenType.TTYPD,
-                Tokeniser.TokenType.TARRD,
-                Tokeniser.TokenType.TMAIN));
+        syncSet.addAll(CONSTS_SYNC);
 
         if (match(Tokeniser.TokenType.TCONS)) {
             this.currentEntry = new SymbolTableEntry(SymbolType.CONSTANT);
-            if (consume(Tokeniser.TokenType.TCONS, node, syncSet)) {
-                moveToNextValidToken(syncSet);
-                return node;
-            }
-            node = initList(syncSet);
+            consume(Tokeniser.TokenType.TCONS, null, syncSet);
+            return initList(syncSet);
         }
-        return node;
-
+        return null;
     }
 
     private Node initList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NILIST", "");
+        Node node = new Node(NodeKind.NILIST, "");
 
-        syncSet.addAll(Arrays.asList(
-                Tokeniser.TokenType.TCOMA,
-                Tokeniser.TokenType.TTYPD,
-                Tokeniser.TokenType.TARRD,
-                Tokeniser.TokenType.TMAIN));
+        syncSet.addAll(INIT_SYNC);
 
         node.addChild(init(syncSet));
         while (match(Tokeniser.TokenType.TCOMA)) {
@@ -186,12 +374,8 @@ public class Parser {
     }
 
     private Node init(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NINIT", "");
-        syncSet.addAll(Arrays.asList(
-                Tokeniser.TokenType.TCOMA,
-                Tokeniser.TokenType.TTYPD,
-                Tokeniser.TokenType.TARRD,
-                Tokeniser.TokenType.TMAIN));
+        Node node = new Node(NodeKind.NINIT, "");
+        syncSet.addAll(INIT_SYNC);
         if (consume(Tokeniser.TokenType.TIDEN, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -200,45 +384,46 @@ public class Parser {
             moveToNextValidToken(syncSet);
             return node;
         }
-        this.currentEntry.setName(node.getValue());
+        this.currentEntry.setName(node.getValue(), node.getNameId());
         this.symbolTable.enter(this.currentEntry);
-        node.addChild(expr(true, syncSet));
+        node.addChild(expr(syncSet));
         return node;
     }
 
     private Node types(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         if (match(Tokeniser.TokenType.TTYPD)) {
-            consume(Tokeniser.TokenType.TTYPD, node, syncSet);
-            node = typeList(syncSet);
+            consume(Tokeniser.TokenType.TTYPD, null, syncSet);
+            return typeList(syncSet);
         }
-        return node;
+        return null;
     }
 
     private Node typeList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        syncSet.addAll(Arrays.asList(
-                Tokeniser.TokenType.TARRD,
-                Tokeniser.TokenType.TFUNC,
-                Tokeniser.TokenType.TMAIN));
+        syncSet.addAll(TYPE_LIST_SYNC);
+        Node list = null;
+        Node tail = null;
         Node typeNode = type(syncSet);
-        if (match(Tokeniser.TokenType.TIDEN)) {
-            node.setType("NTYPEL");
-            node.addChild(typeNode);
-            node.addChild(typeList(syncSet));
-        } else {
-            node = typeNode;
+        while (match(Tokeniser.TokenType.TIDEN)) {
+            Node next = new Node(NodeKind.NTYPEL, "");
+            next.addChild(typeNode);
+            if (tail == null) {
+                list = next;
+            } else {
+                tail.addChild(next);
+            }
+            tail = next;
+            typeNode = type(syncSet);
         }
-        return node;
+        if (tail == null) {
+            return typeNode;
+        }
+        tail.addChild(typeNode);
+        return list;
     }
 
     private Node type(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NATYPE", "");
-        syncSet.addAll(Arrays.asList(
-                Tokeniser.TokenType.TIDEN,
-                Tokeniser.TokenType.TARRD,
-                Tokeniser.TokenType.TFUNC,
-                Tokeniser.TokenType.TMAIN));
+        Node node = new Node(NodeKind.NATYPE, "");
+        syncSet.addAll(TYPE_SYNC);
         if (consume(Tokeniser.TokenType.TIDEN, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -256,7 +441,7 @@ public class Parser {
                 moveToNextValidToken(syncSet);
                 return node;
             }
-            node.addChild(expr(true, syncSet));
+            node.addChild(expr(syncSet));
             if (consume(Tokeniser.TokenType.TRBRK, node, syncSet)) {
                 moveToNextValidToken(syncSet);
                 return node;
@@ -270,7 +455,7 @@ public class Parser {
                 return node;
             }
         } else {
-            node.setType("NRTYPE");
+            node.setKind(NodeKind.NRTYPE);
             node.addChild(fields(syncSet));
         }
         if (consume(Tokeniser.TokenType.TTEND, node, syncSet)) {
@@ -281,52 +466,59 @@ public class Parser {
     }
 
     private Node fields(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
+        Node list = null;
+        Node tail = null;
         Node sDeclNode = sDecl(syncSet);
-        if (match(Tokeniser.TokenType.TCOMA)) {
-            node.setType("NFLIST");
-            node.addChild(sDeclNode);
-            if (consume(Tokeniser.TokenType.TCOMA, node, syncSet)) {
+        while (match(Tokeniser.TokenType.TCOMA)) {
+            Node next = new Node(NodeKind.NFLIST, "");
+            next.addChild(sDeclNode);
+            if (tail == null) {
+                list = next;
+            } else {
+                tail.addChild(next);
+            }
+            tail = next;
+            if (consume(Tokeniser.TokenType.TCOMA, next, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return list;
             }
-            node.addChild(fields(syncSet));
-        } else {
-            node = sDeclNode;
+            sDeclNode = sDecl(syncSet);
         }
-        return node;
+        if (tail == null) {
+            return sDeclNode;
+        }
+        tail.addChild(sDeclNode);
+        return list;
     }
 
     private Node arrays(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         if (match(Tokeniser.TokenType.TARRD)) {
-            if (consume(Tokeniser.TokenType.TARRD, node, syncSet)) {
-                moveToNextValidToken(syncSet);
-                return node;
-            }
-            node = arrDecls(syncSet);
+            consume(Tokeniser.TokenType.TARRD, null, syncSet);
+            return arrDecls(syncSet);
         }
-        return node;
+        return null;
     }
 
     private Node arrDecls(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         Node arrayNode = arrDecl(syncSet);
-        if (match(Tokeniser.TokenType.TCOMA)) {
-            node.setType("NALIST");
-            node.addChild(arrayNode);
+        Node last = arrayNode;
+        boolean nested = false;
+        // INFO: Only the first declaration is kept, the rest are parsed and dropped
+        while (match(Tokeniser.TokenType.TCOMA)) {
+            Node node = new Node(NodeKind.NALIST, "");
+            node.addChild(last);
             if (consume(Tokeniser.TokenType.TCOMA, node, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return nested ? arrayNode : node;
             }
-            node.addChild(arrDecls(syncSet));
+            last = arrDecl(syncSet);
+            nested = true;
         }
-        node = arrayNode;
-        return node;
+        return arrayNode;
     }
 
     private Node arrDecl(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NARRD", "");
+        Node node = new Node(NodeKind.NARRD, "");
         if (consume(Tokeniser.TokenType.TIDEN, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -343,28 +535,98 @@ public class Parser {
     }
 
     private Node funcs(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        if (match(Tokeniser.TokenType.TFUNC)) {
-            node.setType("NFUNCS");
-            node.addChild(func(syncSet));
-            node.addChild(funcs(syncSet));
+        if (functionPool == null || lazyFunctionBodies || listener != null || tokens.isStreaming()
+                || !match(Tokeniser.TokenType.TFUNC)) {
+            return funcs(syncSet, List.of(), null);
+        }
+        SymbolTable snapshot = symbolTable.copy();
+        List<ParallelFunctionParser.Function> parsed = ParallelFunctionParser.parse(tokens.getTokens(),
+                tokens.getIndex(), names, snapshot, syncSet, functionPool);
+        try {
+            return funcs(syncSet, parsed, snapshot);
+        } finally {
+            ParallelFunctionParser.cancel(parsed);
         }
-        return node;
+    }
+
+    /**
+     * Parses the function definitions, committing those already parsed on the
+     * pool where they line up with the current token.
+     *
+     * @param syncSet  The synchronisation set.
+     * @param parsed   The functions parsed on the pool, in source order.
+     * @param snapshot The symbol table they were parsed against.
+     * @return The NFUNCS chain, or null if there are no functions or they were
+     *         reported to the listener.
+     */
+    private Node funcs(Set<Tokeniser.TokenType> syncSet, List<ParallelFunctionParser.Function> parsed,
+            SymbolTable snapshot) throws ParseException {
+        int nextParsed = 0;
+        Node list = null;
+        Node tail = null;
+        int links = 0;
+        while (match(Tokeniser.TokenType.TFUNC)) {
+            if (listener != null) {
+                listener.enterNode(functionLink);
+                links++;
+                report(func(syncSet));
+                continue;
+            }
+            Node next = new Node(NodeKind.NFUNCS, "");
+            if (tail == null) {
+                list = next;
+            } else {
+                tail.addChild(next);
+            }
+            while (nextParsed < parsed.size() && parsed.get(nextParsed).getStart() < tokens.getIndex()) {
+                nextParsed++;
+            }
+            Node funcNode = null;
+            if (nextParsed < parsed.size() && parsed.get(nextParsed).getStart() == tokens.getIndex()) {
+                funcNode = commitFunction(parsed.get(nextParsed++), snapshot, syncSet);
+            }
+            if (funcNode == null) {
+                funcNode = func(syncSet);
+            }
+            next.addChild(funcNode);
+            tail = next;
+        }
+        for (; links > 0; links--) {
+            listener.exitNode(functionLink);
+        }
+        return list;
+    }
+
+    /**
+     * Takes a function parsed on the pool as if this Parser had parsed it.
+     *
+     * @param function The function, which starts at the current token.
+     * @param snapshot The symbol table the function was parsed against.
+     * @param syncSet  The synchronisation set.
+     * @return The function's NFUND node, or null if it must be parsed again.
+     */
+    private Node commitFunction(ParallelFunctionParser.Function function, SymbolTable snapshot,
+            Set<Tokeniser.TokenType> syncSet) {
+        function.join();
+        if (!function.isValid(symbolTable, snapshot)) {
+            return null;
+        }
+        function.replay(symbolTable, outputController, syncSet);
+        this.currentEntry = function.getCurrentEntry();
+        tokens.seek(function.getEnd());
+        return function.getNode();
     }
 
     private Node func(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        syncSet.addAll(Arrays.asList(
-                Tokeniser.TokenType.TFUNC,
-                Tokeniser.TokenType.TTEND,
-                Tokeniser.TokenType.TMAIN,
-                Tokeniser.TokenType.TCD24));
-        Node node = new Node("NFUND", "");
+        syncSet.addAll(FUNC_SYNC);
+        Node node = lazyFunctionBodies && listener == null ? new LazyFunctionNode()
+                : new Node(NodeKind.NFUND, "");
         this.currentEntry = new SymbolTableEntry(SymbolType.FUNCTION);
         if (consume(Tokeniser.TokenType.TFUNC, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
         }
-        this.currentEntry.setName(this.currentToken.getLexeme());
+        this.currentEntry.setName(tokens.lexeme());
         if (consume(Tokeniser.TokenType.TIDEN, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -384,49 +646,59 @@ public class Parser {
             return node;
         }
         node.addChild(rType(syncSet));
-        node.addChild(funcBody(syncSet));
+        funcBody(node, syncSet);
         this.symbolTable.enter(this.currentEntry);
 
         return node;
     }
 
     private Node rType(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         if (match(Tokeniser.TokenType.TVOID)) {
             this.currentEntry.setDataType(DataType.VOID);
-            consume(Tokeniser.TokenType.TVOID, node, syncSet);
-            return node;
+            consume(Tokeniser.TokenType.TVOID, null, syncSet);
+            return null;
         } else {
             return sType(syncSet);
         }
     }
 
     private Node pList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         if (match(Tokeniser.TokenType.TIDEN) || match(Tokeniser.TokenType.TCONS)) {
             return params(syncSet);
         }
-        return node;
+        return null;
     }
 
     private Node params(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        node.addChild(param(syncSet));
-        if (match(Tokeniser.TokenType.TCOMA)) {
-            node.setType("NPLIST");
-            if (consume(Tokeniser.TokenType.TCOMA, node, syncSet)) {
+        Node first = param(syncSet);
+        if (!match(Tokeniser.TokenType.TCOMA)) {
+            return first;
+        }
+        Node list = new Node(NodeKind.NPLIST, "");
+        list.addChild(first);
+        Node tail = list;
+        while (match(Tokeniser.TokenType.TCOMA)) {
+            if (consume(Tokeniser.TokenType.TCOMA, tail, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return list;
+            }
+            Node item = param(syncSet);
+            if (!match(Tokeniser.TokenType.TCOMA)) {
+                tail.addChild(item);
+                break;
             }
-            node.addChild(params(syncSet));
+            Node next = new Node(NodeKind.NPLIST, "");
+            next.addChild(item);
+            tail.addChild(next);
+            tail = next;
         }
-        return node;
+        return list;
     }
 
     private Node param(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NSIMP", "");
+        Node node = new Node(NodeKind.NSIMP, "");
         if (match(Tokeniser.TokenType.TCONS)) {
-            node.setType("NARRC");
+            node.setKind(NodeKind.NARRC);
             if (consume(Tokeniser.TokenType.TCONS, node, syncSet)) {
                 moveToNextValidToken(syncSet);
                 return node;
@@ -439,45 +711,115 @@ public class Parser {
         return node;
     }
 
-    private Node funcBody(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        node.addChild(locals(syncSet));
-        if (consume(Tokeniser.TokenType.TBEGN, node, syncSet)) {
-            moveToNextValidToken(syncSet);
-            return node;
+    private void funcBody(Node funcNode, Set<Tokeniser.TokenType> syncSet) throws ParseException {
+        Node localsNode = locals(syncSet);
+        if (funcNode instanceof LazyFunctionNode && match(Tokeniser.TokenType.TBEGN)) {
+            int start = tokens.getIndex();
+            if (skipBlock()) {
+                ((LazyFunctionNode) funcNode).defer(this, start, localsNode, syncSet,
+                        ((VersionedSymbolTable) symbolTable).version());
+                deferredBodies.add((LazyFunctionNode) funcNode);
+                return;
+            }
+            tokens.seek(start);
         }
-        node.addChild(stats(syncSet));
-        if (consume(Tokeniser.TokenType.TTEND, node, syncSet)) {
+        // INFO: A syntax error in the statements clears the function's entry, which
+        // a lazy body parsed by another Parser cannot do, so it is kept either way
+        SymbolTableEntry entry = this.currentEntry;
+        funcStatements(funcNode, localsNode, syncSet);
+        this.currentEntry = entry;
+    }
+
+    /**
+     * Parses the begin, statements and end of a function body, after its locals.
+     */
+    void funcStatements(Node funcNode, Node localsNode, Set<Tokeniser.TokenType> syncSet) throws ParseException {
+        Node error = expect(Tokeniser.TokenType.TBEGN, syncSet);
+        if (error != null) {
+            error.addChild(localsNode);
+            funcNode.addChild(error);
             moveToNextValidToken(syncSet);
-            return node;
+            return;
+        }
+        Node statsNode = stats(syncSet);
+        error = expect(Tokeniser.TokenType.TTEND, syncSet);
+        if (error != null) {
+            error.addChild(localsNode);
+            error.addChild(statsNode);
+            funcNode.addChild(error);
+            moveToNextValidToken(syncSet);
+            return;
         }
-        return node;
+        funcNode.addChild(localsNode);
+        funcNode.addChild(statsNode);
+    }
+
+    /**
+     * Skips from a begin token to just past the end that closes it, counting the
+     * for, if and do statements that also close with an end.
+     *
+     * @return false if a function, main or EOF was reached first.
+     */
+    private boolean skipBlock() {
+        int depth = 0;
+        do {
+            switch (tokens.type()) {
+                case TBEGN:
+                case TTFOR:
+                case TIFTH:
+                case TTTDO:
+                    depth++;
+                    break;
+                case TTEND:
+                    depth--;
+                    break;
+                case TFUNC:
+                case TMAIN:
+                case TTEOF:
+                    return false;
+                default:
+                    break;
+            }
+            tokens.advance();
+        } while (depth > 0);
+        return true;
     }
 
     private Node locals(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         if (match(Tokeniser.TokenType.TIDEN)) {
             return dList(syncSet);
         }
-        return node;
+        return null;
     }
 
     private Node dList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        node.addChild(decl(syncSet));
-        if (match(Tokeniser.TokenType.TCOMA)) {
-            node.setType("NDLIST");
-            if (consume(Tokeniser.TokenType.TCOMA, node, syncSet)) {
+        Node first = decl(syncSet);
+        if (!match(Tokeniser.TokenType.TCOMA)) {
+            return first;
+        }
+        Node list = new Node(NodeKind.NDLIST, "");
+        list.addChild(first);
+        Node tail = list;
+        while (match(Tokeniser.TokenType.TCOMA)) {
+            if (consume(Tokeniser.TokenType.TCOMA, tail, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return list;
             }
-            node.addChild(dList(syncSet));
+            Node item = decl(syncSet);
+            if (!match(Tokeniser.TokenType.TCOMA)) {
+                tail.addChild(item);
+                break;
+            }
+            Node next = new Node(NodeKind.NDLIST, "");
+            next.addChild(item);
+            tail.addChild(next);
+            tail = next;
         }
-        return node;
+        return list;
     }
 
     private Node decl(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NSDECL", "");
+        Node node = new Node(NodeKind.NSDECL, "");
         this.currentEntry = new SymbolTableEntry(SymbolType.VARIABLE);
         if (consume(Tokeniser.TokenType.TIDEN, node, syncSet)) {
             moveToNextValidToken(syncSet);
@@ -495,58 +837,84 @@ public class Parser {
     }
 
     private Node mainBody(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NMAIN", "");
-        syncSet.addAll(Arrays.asList(
-                Tokeniser.TokenType.TTEND,
-                Tokeniser.TokenType.TCD24));
+        Node node = new Node(NodeKind.NMAIN, "");
+        syncSet.addAll(MAIN_BODY_SYNC);
         if (consume(Tokeniser.TokenType.TMAIN, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
         }
-        node.addChild(sList(syncSet));
+        Node declarations = sList(syncSet);
         if (consume(Tokeniser.TokenType.TBEGN, node, syncSet)) {
+            node.addChild(declarations);
             moveToNextValidToken(syncSet);
             return node;
         }
-        node.addChild(stats(syncSet));
+        if (listener == null) {
+            node.addChild(declarations);
+            node.addChild(stats(syncSet));
+            mainEnd(node, syncSet);
+            return node;
+        }
+        listener.enterNode(node);
+        report(declarations);
+        stats(syncSet, true);
+        mainEnd(node, syncSet);
+        reportErrors();
+        listener.exitNode(node);
+        return null;
+    }
+
+    private void mainEnd(Node node, Set<Tokeniser.TokenType> syncSet) throws ParseException {
         if (consume(Tokeniser.TokenType.TTEND, node, syncSet)) {
             moveToNextValidToken(syncSet);
-            return node;
+            return;
         }
         if (consume(Tokeniser.TokenType.TCD24, node, syncSet)) {
             moveToNextValidToken(syncSet);
-            return node;
+            return;
         }
-        if (!this.programIdentifier.equals(currentToken.getLexeme())) {
-            outputController.addSemanticError("Program names to not match", currentToken.getCol(),
-                    currentToken.getLine());
+        if (!this.programIdentifier.contentEquals(tokens.slice())) {
+            outputController.addSemanticError("Program names to not match", tokens.col(),
+                    tokens.line());
+            reportError("Program names to not match", tokens.line(), tokens.col());
         }
         // INFO: pass node null as is at the end of the program (otherwise main node
         // will be name set to the identifier)
         if (consume(Tokeniser.TokenType.TIDEN, null, syncSet)) {
             moveToNextValidToken(syncSet);
-            return node;
         }
-        return node;
     }
 
     private Node sList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         this.currentEntry = new SymbolTableEntry(SymbolType.VARIABLE);
-        node.addChild(sDecl(syncSet));
-        if (match(Tokeniser.TokenType.TCOMA)) {
-            node.setType("NSDLST");
-            if (consume(Tokeniser.TokenType.TCOMA, node, syncSet)) {
+        Node first = sDecl(syncSet);
+        if (!match(Tokeniser.TokenType.TCOMA)) {
+            return first;
+        }
+        Node list = new Node(NodeKind.NSDLST, "");
+        list.addChild(first);
+        Node tail = list;
+        while (match(Tokeniser.TokenType.TCOMA)) {
+            if (consume(Tokeniser.TokenType.TCOMA, tail, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return list;
             }
-            node.addChild(sList(syncSet));
+            this.currentEntry = new SymbolTableEntry(SymbolType.VARIABLE);
+            Node item = sDecl(syncSet);
+            if (!match(Tokeniser.TokenType.TCOMA)) {
+                tail.addChild(item);
+                break;
+            }
+            Node next = new Node(NodeKind.NSDLST, "");
+            next.addChild(item);
+            tail.addChild(next);
+            tail = next;
         }
-        return node;
+        return list;
     }
 
     private Node sDecl(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NSDECL", "");
+        Node node = new Node(NodeKind.NSDECL, "");
         if (consume(Tokeniser.TokenType.TIDEN, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -560,10 +928,12 @@ public class Parser {
         } else {
             node.addChild(sType(syncSet));
         }
-        this.currentEntry.setName(node.getValue());
-        if (this.symbolTable.find(this.currentEntry.getName()) != null) {
+        this.currentEntry.setName(node.getValue(), node.getNameId());
+        if (this.symbolTable.find(this.currentEntry.getNameId()) != null) {
             outputController.addSemanticError("Variable name " + this.currentEntry.getName() + " already used",
-                    currentToken.getCol(), currentToken.getLine());
+                    tokens.col(), tokens.line());
+            reportError("Variable name " + this.currentEntry.getName() + " already used", tokens.line(),
+                    tokens.col());
         } else {
             this.symbolTable.enter(this.currentEntry);
         }
@@ -572,102 +942,142 @@ public class Parser {
     }
 
     private Node sType(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
+        Tokeniser.TokenType typeToken = Tokeniser.TokenType.TBOOL;
         if (match(Tokeniser.TokenType.TINTG)) {
             this.currentEntry.setDataType(DataType.INTEGER);
-            if (consume(Tokeniser.TokenType.TINTG, node, syncSet)) {
-                moveToNextValidToken(syncSet);
-                return node;
-            }
+            typeToken = Tokeniser.TokenType.TINTG;
         } else if (match(Tokeniser.TokenType.TFLOT)) {
             this.currentEntry.setDataType(DataType.FLOAT);
-            if (consume(Tokeniser.TokenType.TFLOT, node, syncSet)) {
-                moveToNextValidToken(syncSet);
-                return node;
-            }
+            typeToken = Tokeniser.TokenType.TFLOT;
         } else {
             this.currentEntry.setDataType(DataType.BOOLEAN);
-            if (consume(Tokeniser.TokenType.TBOOL, node, syncSet)) {
-                moveToNextValidToken(syncSet);
-                return node;
-            }
         }
-        return node;
+        Node error = expect(typeToken, syncSet);
+        if (error != null) {
+            moveToNextValidToken(syncSet);
+        }
+        return error;
     }
 
     private Node stats(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        if (match(Tokeniser.TokenType.TTFOR) || match(Tokeniser.TokenType.TIFTH) || match(Tokeniser.TokenType.TSWTH)
-                || match(Tokeniser.TokenType.TTTDO)) {
-            node.addChild(strStat(syncSet));
-        } else {
-            node.addChild(stat(syncSet));
-            if (consume(Tokeniser.TokenType.TSEMI, node, syncSet)) {
-                moveToNextValidToken(syncSet);
-                return node;
+        return stats(syncSet, false);
+    }
+
+    /**
+     * @param report true to report each statement to the listener once it is
+     *               parsed instead of building the NSTATS chain.
+     * @return The statements, or null if they were reported.
+     */
+    private Node stats(Set<Tokeniser.TokenType> syncSet, boolean report) throws ParseException {
+        Node list = null;
+        Node tail = null;
+        int links = 0;
+        while (true) {
+            Node node;
+            boolean failed = false;
+            if (matchAny(GrammarSets.FIRST_STRSTAT)) {
+                node = strStat(syncSet);
+            } else {
+                node = stat(syncSet);
+                Node error = expect(Tokeniser.TokenType.TSEMI, syncSet);
+                if (error != null) {
+                    error.addChild(node);
+                    node = error;
+                    moveToNextValidToken(syncSet);
+                    failed = true;
+                }
             }
+            boolean more = !failed && matchAny(GrammarSets.FIRST_STATS);
+            if (report) {
+                if (more) {
+                    listener.enterNode(statementLink);
+                    links++;
+                }
+                report(node);
+                if (!more) {
+                    for (; links > 0; links--) {
+                        listener.exitNode(statementLink);
+                    }
+                    return null;
+                }
+                continue;
+            }
+            if (more) {
+                Node next = new Node(NodeKind.NSTATS, "");
+                next.addChild(node);
+                node = next;
+            }
+            if (tail == null) {
+                list = node;
+            } else {
+                tail.addChild(node);
+            }
+            if (!more) {
+                return list;
+            }
+            tail = node;
         }
-        if (match(Tokeniser.TokenType.TTFOR) || match(Tokeniser.TokenType.TIFTH) || match(Tokeniser.TokenType.TSWTH)
-                || match(Tokeniser.TokenType.TTTDO) || match(Tokeniser.TokenType.TREPT)
-                || match(Tokeniser.TokenType.TIDEN) || match(Tokeniser.TokenType.TINPT)
-                || match(Tokeniser.TokenType.TRETN) || match(Tokeniser.TokenType.TPRLN)
-                || match(Tokeniser.TokenType.TPRNT)) {
-            node.setType("NSTATS");
-            node.addChild(stats(syncSet));
-        }
-        return node;
     }
 
     private Node strStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         if (match(Tokeniser.TokenType.TTFOR)) {
-            // node.addChild(forStat(syncSet));
-            node = forStat(syncSet);
+            return forStat(syncSet);
         } else if (match(Tokeniser.TokenType.TIFTH)) {
-            // node.addChild(ifStat(syncSet));
-            node = ifStat(syncSet);
+            return ifStat(syncSet);
         } else if (match(Tokeniser.TokenType.TSWTH)) {
-            // node.addChild(switchStat(syncSet));
-            node = switchStat(syncSet);
+            return switchStat(syncSet);
         } else {
-            // node.addChild(doStat(syncSet));
-            node = doStat(syncSet);
-
+            return doStat(syncSet);
         }
-        return node;
     }
 
     // TODO: use symbol table to differentiate
     private Node stat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        syncSet = new HashSet<>(Arrays.asList(
-                Tokeniser.TokenType.TSEMI, Tokeniser.TokenType.TTEND, Tokeniser.TokenType.TELSE,
-                Tokeniser.TokenType.TELIF,
-                Tokeniser.TokenType.TIDEN, Tokeniser.TokenType.TTFOR, Tokeniser.TokenType.TIFTH,
-                Tokeniser.TokenType.TSWTH,
-                Tokeniser.TokenType.TTTDO, Tokeniser.TokenType.TREPT, Tokeniser.TokenType.TINPT,
-                Tokeniser.TokenType.TPRNT,
-                Tokeniser.TokenType.TPRLN, Tokeniser.TokenType.TRETN));
-
-        if (match(Tokeniser.TokenType.TREPT)) {
-            node.addChild(repStat(syncSet));
-        } else if (match(Tokeniser.TokenType.TIDEN)
-                && this.symbolTable.find(this.currentToken.getLexeme()) != null &&
-                this.symbolTable.find(this.currentToken.getLexeme()).getSymbolType() == SymbolType.FUNCTION) {
-            node.addChild(callStat(syncSet));
-        } else if (match(Tokeniser.TokenType.TIDEN)) {
-            node.addChild(asgnStat(syncSet));
-        } else if (match(Tokeniser.TokenType.TINPT) || match(Tokeniser.TokenType.TPRLN)
-                || match(Tokeniser.TokenType.TPRNT)) {
-            node.addChild(ioStat(syncSet));
-        } else if (match(Tokeniser.TokenType.TRETN)) {
-            node.addChild(returnStat(syncSet));
+        Node node = null;
+        syncSet = statementSyncSet(statementDepth++);
+        try {
+            SymbolTableEntry identifierEntry = null;
+            if (match(Tokeniser.TokenType.TIDEN)) {
+                identifierEntry = this.symbolTable.find(tokens.slice());
+            }
+
+            if (match(Tokeniser.TokenType.TREPT)) {
+                node = repStat(syncSet);
+            } else if (identifierEntry != null && identifierEntry.getSymbolType() == SymbolType.FUNCTION) {
+                node = callStat(syncSet);
+            } else if (match(Tokeniser.TokenType.TIDEN)) {
+                node = asgnStat(syncSet);
+            } else if (matchAny(GrammarSets.FIRST_IOSTAT)) {
+                node = ioStat(syncSet);
+            } else if (match(Tokeniser.TokenType.TRETN)) {
+                node = returnStat(syncSet);
+            }
+        } finally {
+            statementDepth--;
         }
         return node;
     }
 
+    /**
+     * Returns the synchronisation set for a statement, reset to STATEMENT_SYNC.
+     * Statements only nest through their bodies, so one set per depth is reused
+     * rather than allocating a new one for every statement.
+     *
+     * @param depth The number of statements enclosing this one.
+     * @return The set for the statement to use and add to.
+     */
+    private Set<Tokeniser.TokenType> statementSyncSet(int depth) {
+        if (depth == statementSyncSets.size()) {
+            statementSyncSets.add(EnumSet.noneOf(Tokeniser.TokenType.class));
+        }
+        EnumSet<Tokeniser.TokenType> syncSet = statementSyncSets.get(depth);
+        syncSet.clear();
+        syncSet.addAll(STATEMENT_SYNC);
+        return syncSet;
+    }
+
     private Node forStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NFOR", "");
+        Node node = new Node(NodeKind.NFOR, "");
         if (consume(Tokeniser.TokenType.TTFOR, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -695,7 +1105,7 @@ public class Parser {
     }
 
     private Node repStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NREPT", "");
+        Node node = new Node(NodeKind.NREPT, "");
         if (consume(Tokeniser.TokenType.TREPT, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -719,7 +1129,7 @@ public class Parser {
     }
 
     private Node doStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NDOWL", "");
+        Node node = new Node(NodeKind.NDOWL, "");
         if (consume(Tokeniser.TokenType.TTTDO, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -746,29 +1156,40 @@ public class Parser {
     }
 
     private Node asgnList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         if (match(Tokeniser.TokenType.TIDEN)) {
             return aList(syncSet);
         }
-        return node;
+        return null;
     }
 
     private Node aList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        node.addChild(asgnStat(syncSet));
-        if (match(Tokeniser.TokenType.TCOMA)) {
-            node.setType("NASGNS");
-            if (consume(Tokeniser.TokenType.TCOMA, node, syncSet)) {
+        Node first = asgnStat(syncSet);
+        if (!match(Tokeniser.TokenType.TCOMA)) {
+            return first;
+        }
+        Node list = new Node(NodeKind.NASGNS, "");
+        list.addChild(first);
+        Node tail = list;
+        while (match(Tokeniser.TokenType.TCOMA)) {
+            if (consume(Tokeniser.TokenType.TCOMA, tail, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return list;
+            }
+            Node item = asgnStat(syncSet);
+            if (!match(Tokeniser.TokenType.TCOMA)) {
+                tail.addChild(item);
+                break;
             }
-            node.addChild(aList(syncSet));
+            Node next = new Node(NodeKind.NASGNS, "");
+            next.addChild(item);
+            tail.addChild(next);
+            tail = next;
         }
-        return node;
+        return list;
     }
 
     private Node ifStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NIFTH", "");
+        Node node = new Node(NodeKind.NIFTH, "");
         if (consume(Tokeniser.TokenType.TIFTH, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -784,14 +1205,14 @@ public class Parser {
         }
         node.addChild(stats(syncSet));
         if (match(Tokeniser.TokenType.TELSE)) {
-            node.setType("NIFTE");
+            node.setKind(NodeKind.NIFTE);
             if (consume(Tokeniser.TokenType.TELSE, node, syncSet)) {
                 moveToNextValidToken(syncSet);
                 return node;
             }
             node.addChild(stats(syncSet));
         } else if (match(Tokeniser.TokenType.TELIF)) {
-            node.setType("NIFEF");
+            node.setKind(NodeKind.NIFEF);
             if (consume(Tokeniser.TokenType.TLPAR, node, syncSet)) {
                 moveToNextValidToken(syncSet);
                 return node;
@@ -811,7 +1232,7 @@ public class Parser {
     }
 
     private Node switchStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NSWTCH", "");
+        Node node = new Node(NodeKind.NSWTCH, "");
         if (consume(Tokeniser.TokenType.TSWTH, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -820,7 +1241,7 @@ public class Parser {
             moveToNextValidToken(syncSet);
             return node;
         }
-        node.addChild(expr(true, syncSet));
+        node.addChild(expr(syncSet));
         if (consume(Tokeniser.TokenType.TRPAR, node, syncSet)) {
             moveToNextValidToken(syncSet);
             return node;
@@ -838,40 +1259,49 @@ public class Parser {
     }
 
     private Node caseList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NCASLT", "");
-        if (match(Tokeniser.TokenType.TCASE)) {
+        Node list = null;
+        Node tail = null;
+        while (match(Tokeniser.TokenType.TCASE)) {
+            Node node = new Node(NodeKind.NCASLT, "");
+            if (tail == null) {
+                list = node;
+            } else {
+                tail.addChild(node);
+            }
+            tail = node;
             if (consume(Tokeniser.TokenType.TCASE, node, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return list;
             }
-            node.addChild(expr(true, syncSet));
+            node.addChild(expr(syncSet));
             if (consume(Tokeniser.TokenType.TCOLN, node, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return list;
             }
             node.addChild(stats(syncSet));
             if (consume(Tokeniser.TokenType.TBREK, node, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return list;
             }
             if (consume(Tokeniser.TokenType.TSEMI, node, syncSet)) {
                 moveToNextValidToken(syncSet);
-                return node;
+                return list;
             }
-            node.addChild(caseList(syncSet));
+        }
+        Node node = expect(Tokeniser.TokenType.TDFLT, syncSet);
+        if (node == null) {
+            node = expect(Tokeniser.TokenType.TCOLN, syncSet);
+        }
+        if (node != null) {
+            moveToNextValidToken(syncSet);
         } else {
-            node.setType("SPECIAL");
-            if (consume(Tokeniser.TokenType.TDFLT, node, syncSet)) {
-                moveToNextValidToken(syncSet);
-                return node;
-            }
-            if (consume(Tokeniser.TokenType.TCOLN, node, syncSet)) {
-                moveToNextValidToken(syncSet);
-                return node;
-            }
-            node.addChild(stats(syncSet));
+            node = stats(syncSet);
         }
-        return node;
+        if (tail == null) {
+            return node;
+        }
+        tail.addChild(node);
+        return list;
     }
 
     private Node asgnStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
@@ -884,40 +1314,33 @@ public class Parser {
     }
 
     private Node asgnOp(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("", "");
-        syncSet.addAll(Arrays.asList(
-                Tokeniser.TokenType.TNOTT,
-                Tokeniser.TokenType.TIDEN,
-                Tokeniser.TokenType.TILIT,
-                Tokeniser.TokenType.TFLIT,
-                Tokeniser.TokenType.TTRUE,
-                Tokeniser.TokenType.TFALS));
+        Node node = new Node(NodeKind.NASGN, "");
+        syncSet.addAll(ASSIGN_OP_SYNC);
         if (match(Tokeniser.TokenType.TPLEQ)) {
-            node.setType("NPLEQ");
+            node.setKind(NodeKind.NPLEQ);
             if (consume(Tokeniser.TokenType.TPLEQ, node, syncSet)) {
                 moveToNextValidToken(syncSet);
                 return node;
             }
         } else if (match(Tokeniser.TokenType.TMNEQ)) {
-            node.setType("NMNEQ");
+            node.setKind(NodeKind.NMNEQ);
             if (consume(Tokeniser.TokenType.TMNEQ, node, syncSet)) {
                 moveToNextValidToken(syncSet);
                 return node;
             }
         } else if (match(Tokeniser.TokenType.TSTEQ)) {
-            node.setType("NSTEQ");
+            node.setKind(NodeKind.NSTEQ);
             if (consume(Tokeniser.TokenType.TSTEQ, node, syncSet)) {
                 moveToNextValidToken(syncSet);
                 return node;
             }
         } else if (match(Tokeniser.TokenType.TDVEQ)) {
-            node.setType("NDVEQ");
+            node.setKind(NodeKind.NDVEQ);
             if (consume(Tokeniser.TokenType.TDVEQ, node, syncSet)) {
                 moveToNextValidToken(syncSet);
                 return node;
             }
         } else {
-            node.setType("NASGN");
             if (consume(Tokeniser.TokenType.TEQUL, node, syncSet)) {
                 moveToNextValidToken(syncSet);
                 return node;
@@ -927,24 +1350,24 @@ public class Parser {
     }
 
     private Node ioStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NINPUT", "");
+        Node node = new Node(NodeKind.NINPUT, "");
         if (match(Tokeniser.TokenType.TINPT)) {
             consume(Tokeniser.TokenType.TINPT, node, syncSet);
             node.addChild(vList(syncSet));
         } else if (match(Tokeniser.TokenType.TPRNT)) {
             consume(Tokeniser.TokenType.TPRNT, node, syncSet);
-            node.setType("NPRINT");
+            node.setKind(NodeKind.NPRINT);
             node.addChild(prList(syncSet));
         } else {
             consume(Tokeniser.TokenType.TPRLN, node, syncSet);
-            node.setType("NPRLN");
+            node.setKind(NodeKind.NPRLN);
             node.addChild(prList(syncSet));
         }
         return node;
     }
 
     private Node callStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NCALL", "");
+        Node node = new Node(NodeKind.NCALL, "");
         consume(Tokeniser.TokenType.TIDEN, node, syncSet);
         consume(Tokeniser.TokenType.TLPAR, node, syncSet);
         if (match(Tokeniser.TokenType.TNOTT) || match(Tokeniser.TokenType.TIDEN) || match(Tokeniser.TokenType.TILIT)
@@ -957,37 +1380,49 @@ public class Parser {
     }
 
     private Node returnStat(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NRETN", "");
+        Node node = new Node(NodeKind.NRETN, "");
         consume(Tokeniser.TokenType.TRETN, node, syncSet);
         if (match(Tokeniser.TokenType.TVOID)) {
             consume(Tokeniser.TokenType.TVOID, node, syncSet);
         } else {
-            node.addChild(expr(true, syncSet));
+            node.addChild(expr(syncSet));
         }
         return node;
     }
 
     private Node vList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        node.addChild(var(syncSet));
-        if (match(Tokeniser.TokenType.TCOMA)) {
-            node.setType("NVLIST");
-            consume(Tokeniser.TokenType.TCOMA, node, syncSet);
-            node.addChild(vList(syncSet));
+        Node first = var(syncSet);
+        if (!match(Tokeniser.TokenType.TCOMA)) {
+            return first;
         }
-        return node;
+        Node list = new Node(NodeKind.NVLIST, "");
+        list.addChild(first);
+        Node tail = list;
+        while (match(Tokeniser.TokenType.TCOMA)) {
+            consume(Tokeniser.TokenType.TCOMA, tail, syncSet);
+            Node item = var(syncSet);
+            if (!match(Tokeniser.TokenType.TCOMA)) {
+                tail.addChild(item);
+                break;
+            }
+            Node next = new Node(NodeKind.NVLIST, "");
+            next.addChild(item);
+            tail.addChild(next);
+            tail = next;
+        }
+        return list;
     }
 
     private Node var(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NSIMV", "");
+        Node node = new Node(NodeKind.NSIMV, "");
         consume(Tokeniser.TokenType.TIDEN, node, syncSet);
         if (match(Tokeniser.TokenType.TLBRK)) {
-            node.setType("NAELT");
+            node.setKind(NodeKind.NAELT);
             consume(Tokeniser.TokenType.TLBRK, node, syncSet);
-            node.addChild(expr(true, syncSet));
+            node.addChild(expr(syncSet));
             consume(Tokeniser.TokenType.TRBRK, node, syncSet);
             if (match(Tokeniser.TokenType.TDOTT)) {
-                node.setType("NARRV");
+                node.setKind(NodeKind.NARRV);
                 consume(Tokeniser.TokenType.TDOTT, node, syncSet);
                 consume(Tokeniser.TokenType.TIDEN, node, syncSet);
             }
@@ -996,54 +1431,75 @@ public class Parser {
     }
 
     private Node eList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        node.addChild(bool(syncSet));
-        if (match(Tokeniser.TokenType.TCOMA)) {
-            node.setType("NEXPL");
-            consume(Tokeniser.TokenType.TCOMA, node, syncSet);
-            node.addChild(eList(syncSet));
+        Node first = bool(syncSet);
+        if (!match(Tokeniser.TokenType.TCOMA)) {
+            return first;
         }
-        return node;
+        Node list = new Node(NodeKind.NEXPL, "");
+        list.addChild(first);
+        Node tail = list;
+        while (match(Tokeniser.TokenType.TCOMA)) {
+            consume(Tokeniser.TokenType.TCOMA, tail, syncSet);
+            Node item = bool(syncSet);
+            if (!match(Tokeniser.TokenType.TCOMA)) {
+                tail.addChild(item);
+                break;
+            }
+            Node next = new Node(NodeKind.NEXPL, "");
+            next.addChild(item);
+            tail.addChild(next);
+            tail = next;
+        }
+        return list;
     }
 
+    /**
+     * Parses bool := not bool | bool logop rel | rel.
+     *
+     * @implNote The left-recursive rule is parsed as a run of nots, then a rel
+     *           followed by a loop over logop rel, with each logop wrapping the
+     *           tree so far in a new NBOOL. Each not becomes an NBOOL holding
+     *           the rest of the bool. Anything that cannot start a rel is
+     *           reported by rel as a syntax error, so the stack depth no longer
+     *           depends on the input.
+     */
     private Node bool(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NBOOL", "");
-        if (match(Tokeniser.TokenType.TNOTT)) {
-            consume(Tokeniser.TokenType.TNOTT, node, syncSet);
-            node.addChild(bool(syncSet));
-        } else if (match(Tokeniser.TokenType.TIDEN) || match(Tokeniser.TokenType.TILIT)
-                || match(Tokeniser.TokenType.TFLIT) || match(Tokeniser.TokenType.TTRUE)
-                || match(Tokeniser.TokenType.TFALS)) {
-            node.setType("SPECIAL");
-            Node relNode = rel(syncSet);
-
-            if (match(Tokeniser.TokenType.TTAND) || match(Tokeniser.TokenType.TTTOR)
-                    || match(Tokeniser.TokenType.TTXOR)) {
-                node.setType("NBOOL");
-                node.addChild(relNode);
-                node.addChild(logOp(syncSet));
-                node.addChild(rel(syncSet));
-
+        Node outer = null;
+        Node innerNot = null;
+        while (match(Tokeniser.TokenType.TNOTT)) {
+            Node not = new Node(NodeKind.NBOOL, "");
+            consume(Tokeniser.TokenType.TNOTT, not, syncSet);
+            if (innerNot == null) {
+                outer = not;
             } else {
-                node = relNode;
+                innerNot.addChild(not);
             }
-        } else {
-            node.addChild(bool(syncSet));
-            node.addChild(logOp(syncSet));
-            node.addChild(rel(syncSet));
+            innerNot = not;
         }
-        return node;
+
+        Node node = rel(syncSet);
+        while (matchAny(GrammarSets.FIRST_LOGOP)) {
+            Node bool = new Node(NodeKind.NBOOL, "");
+            bool.addChild(node);
+            bool.addChild(logOp(syncSet));
+            bool.addChild(rel(syncSet));
+            node = bool;
+        }
+
+        if (innerNot == null) {
+            return node;
+        }
+        innerNot.addChild(node);
+        return outer;
     }
 
     private Node rel(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        Node exprNode = expr(true, syncSet);
-        if (match(Tokeniser.TokenType.TEQEQ) || match(Tokeniser.TokenType.TNEQL) || match(Tokeniser.TokenType.TGRTR)
-                || match(Tokeniser.TokenType.TLEQL) || match(Tokeniser.TokenType.TLESS)
-                || match(Tokeniser.TokenType.TGEQL)) {
+        Node node;
+        Node exprNode = expr(syncSet);
+        if (matchAny(GrammarSets.FIRST_RELOP)) {
             node = relOp(syncSet);
             node.addChild(exprNode);
-            node.addChild(expr(true, syncSet));
+            node.addChild(expr(syncSet));
         } else {
             node = exprNode;
         }
@@ -1051,158 +1507,128 @@ public class Parser {
     }
 
     private Node logOp(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("", "");
+        Node node = new Node(NodeKind.NXOR, "");
         if (match(Tokeniser.TokenType.TTAND)) {
-            node.setType("NAND");
+            node.setKind(NodeKind.NAND);
             consume(Tokeniser.TokenType.TTAND, node, syncSet);
         } else if (match(Tokeniser.TokenType.TTTOR)) {
-            node.setType("NOR");
+            node.setKind(NodeKind.NOR);
             consume(Tokeniser.TokenType.TTTOR, node, syncSet);
         } else {
-            node.setType("NXOR");
             consume(Tokeniser.TokenType.TTXOR, node, syncSet);
         }
         return node;
     }
 
     private Node relOp(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
+        Node node = new Node(NodeKind.NGEQ, "");
         if (match(Tokeniser.TokenType.TEQEQ)) {
-            node.setType("NEQL");
+            node.setKind(NodeKind.NEQL);
             consume(Tokeniser.TokenType.TEQEQ, node, syncSet);
         } else if (match(Tokeniser.TokenType.TNEQL)) {
-            node.setType("NNEQ");
+            node.setKind(NodeKind.NNEQ);
             consume(Tokeniser.TokenType.TNEQL, node, syncSet);
         } else if (match(Tokeniser.TokenType.TGRTR)) {
-            node.setType("NGRT");
+            node.setKind(NodeKind.NGRT);
             consume(Tokeniser.TokenType.TGRTR, node, syncSet);
         } else if (match(Tokeniser.TokenType.TLEQL)) {
-            node.setType("NLEQ");
+            node.setKind(NodeKind.NLEQ);
             consume(Tokeniser.TokenType.TLEQL, node, syncSet);
         } else if (match(Tokeniser.TokenType.TLESS)) {
-            node.setType("NLSS");
+            node.setKind(NodeKind.NLSS);
             consume(Tokeniser.TokenType.TLESS, node, syncSet);
         } else {
-            node.setType("NGEQ");
             consume(Tokeniser.TokenType.TGEQL, node, syncSet);
         }
         return node;
     }
 
-    private Node expr(boolean termNeeded, Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        Node termNode = null;
-        if (termNeeded) {
-            termNode = term(true, syncSet);
-        }
+    private Node expr(Set<Tokeniser.TokenType> syncSet) throws ParseException {
+        return operation(0, syncSet);
+    }
 
-        if (match(Tokeniser.TokenType.TPLUS)) {
-            node.setType("NADD");
-            if (termNode != null) {
-                node.addChild(termNode);
-            }
-            consume(Tokeniser.TokenType.TPLUS, node, syncSet);
-            node.addChild(term(true, syncSet));
-            node.addChild(expr(false, syncSet));
-        } else if (match(Tokeniser.TokenType.TMINS)) {
-            node.setType("NSUB");
-            if (termNode != null) {
-                node.addChild(termNode);
-            }
-            consume(Tokeniser.TokenType.TMINS, node, syncSet);
-            node.addChild(term(true, syncSet));
-            node.addChild(expr(false, syncSet));
-        } else {
-            if (termNode != null) {
-                node = termNode;
+    /**
+     * Parses a run of operands joined by the binary operators of one precedence
+     * level, climbing to the next level for each operand.
+     *
+     * @param level   The index into OPERATOR_TOKENS, 0 for + and -.
+     * @param syncSet The synchronisation set.
+     * @return The operand alone, or a chain of operator nodes. The first holds
+     *         the first two operands and each later one holds the next operand,
+     *         with the node for the following operator as its last child.
+     *
+     * @implNote This builds the same tree the right-recursive rules
+     *           expr := term [(+|-) term expr'] and likewise for term and fact
+     *           built, with a loop per level, so the stack depth depends only on
+     *           how deeply parentheses are nested.
+     */
+    private Node operation(int level, Set<Tokeniser.TokenType> syncSet) throws ParseException {
+        Node first = operand(level + 1, syncSet);
+        int operator = operatorAt(level);
+        if (operator < 0) {
+            return first;
+        }
+        Node head = new Node(OPERATOR_NODES[level][operator], "");
+        head.addChild(first);
+        Node tail = head;
+        while (true) {
+            consume(OPERATOR_TOKENS[level][operator], tail, syncSet);
+            tail.addChild(operand(level + 1, syncSet));
+            operator = operatorAt(level);
+            if (operator < 0) {
+                return head;
             }
+            Node next = new Node(OPERATOR_NODES[level][operator], "");
+            tail.addChild(next);
+            tail = next;
         }
-        return node;
     }
 
-    private Node term(Boolean factNeeded, Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        Node factNode = null;
-        if (factNeeded) {
-            factNode = fact(true, syncSet);
-        }
-        if (match(Tokeniser.TokenType.TSTAR)) {
-            node.setType("NMUL");
-            if (factNode != null) {
-                node.addChild(factNode);
-            }
-            consume(Tokeniser.TokenType.TSTAR, node, syncSet);
-            node.addChild(fact(true, syncSet));
-            node.addChild(term(false, syncSet));
-        } else if (match(Tokeniser.TokenType.TDIVD)) {
-            node.setType("NDIV");
-            if (factNode != null) {
-                node.addChild(factNode);
-            }
-            consume(Tokeniser.TokenType.TDIVD, node, syncSet);
-            node.addChild(fact(true, syncSet));
-            node.addChild(term(false, syncSet));
-        } else if (match(Tokeniser.TokenType.TPERC)) {
-            node.setType("NMOD");
-            if (factNode != null) {
-                node.addChild(factNode);
-            }
-            consume(Tokeniser.TokenType.TPERC, node, null);
-            node.addChild(fact(true, syncSet));
-            node.addChild(term(false, syncSet));
-        } else {
-            if (factNode != null) {
-                node = factNode;
-            }
+    private Node operand(int level, Set<Tokeniser.TokenType> syncSet) throws ParseException {
+        if (level == OPERATOR_TOKENS.length) {
+            return exponent(syncSet);
         }
-        // ε
-        return node;
+        return operation(level, syncSet);
     }
 
-    private Node fact(Boolean exponentNeeded, Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        Node exponentNode = null;
-        if (exponentNeeded) {
-            exponentNode = exponent(syncSet);
-            // node.addChild(exponent(syncSet));
-        }
-        if (match(Tokeniser.TokenType.TCART)) {
-            node.setType("NPOW");
-            if (exponentNode != null) {
-                node.addChild(exponentNode);
-            }
-            consume(Tokeniser.TokenType.TCART, node, syncSet);
-            node.addChild(exponent(syncSet));
-            node.addChild(fact(false, syncSet));
-        } else {
-            if (exponentNode != null) {
-                node = exponentNode;
+    /**
+     * @return The index of the current token among the operators of a level, or
+     *         -1 if it is not one of them.
+     */
+    private int operatorAt(int level) throws ParseException {
+        Tokeniser.TokenType[] operators = OPERATOR_TOKENS[level];
+        for (int i = 0; i < operators.length; i++) {
+            if (match(operators[i])) {
+                return i;
             }
         }
-        return node;
+        return -1;
     }
 
     private Node exponent(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
+        Node node;
         if (match(Tokeniser.TokenType.TTRUE)) {
-            node.setType("NTRUE");
+            node = new Node(NodeKind.NTRUE, "");
             consume(Tokeniser.TokenType.TTRUE, node, syncSet);
         } else if (match(Tokeniser.TokenType.TFALS)) {
-            node.setType("NFALS");
+            node = new Node(NodeKind.NFALS, "");
             consume(Tokeniser.TokenType.TFALS, node, syncSet);
         } else if (match(Tokeniser.TokenType.TIDEN)) {
             node = var(syncSet);
         } else if (match(Tokeniser.TokenType.TILIT)) {
-            node.setType("NILIT");
+            node = new Node(NodeKind.NILIT, "");
             consume(Tokeniser.TokenType.TILIT, node, syncSet);
         } else if (match(Tokeniser.TokenType.TFLIT)) {
-            node.setType("NFLIT");
+            node = new Node(NodeKind.NFLIT, "");
             consume(Tokeniser.TokenType.TFLIT, node, syncSet);
         } else if (match(Tokeniser.TokenType.TLPAR)) {
-            node.setType("SPECIAL");
-            consume(Tokeniser.TokenType.TLPAR, node, syncSet);
-            node.addChild(bool(syncSet));
-            consume(Tokeniser.TokenType.TRPAR, node, syncSet);
+            consume(Tokeniser.TokenType.TLPAR, null, syncSet);
+            node = bool(syncSet);
+            Node error = expect(Tokeniser.TokenType.TRPAR, syncSet);
+            if (error != null) {
+                error.addChild(node);
+                node = error;
+            }
         } else {
             node = fnCall(syncSet);
         }
@@ -1210,7 +1636,7 @@ public class Parser {
     }
 
     private Node fnCall(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("NFCALL", "");
+        Node node = new Node(NodeKind.NFCALL, "");
         consume(Tokeniser.TokenType.TIDEN, node, syncSet);
         consume(Tokeniser.TokenType.TLPAR, node, syncSet);
         if (match(Tokeniser.TokenType.TNOTT)) {
@@ -1221,29 +1647,138 @@ public class Parser {
     }
 
     private Node prList(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
-        node.addChild(printItem(syncSet));
-        if (match(Tokeniser.TokenType.TCOMA)) {
-            node.setType("NPRLST");
-            consume(Tokeniser.TokenType.TCOMA, node, syncSet);
-            node.addChild(prList(syncSet));
+        Node first = printItem(syncSet);
+        if (!match(Tokeniser.TokenType.TCOMA)) {
+            return first;
         }
-        return node;
+        Node list = new Node(NodeKind.NPRLST, "");
+        list.addChild(first);
+        Node tail = list;
+        while (match(Tokeniser.TokenType.TCOMA)) {
+            consume(Tokeniser.TokenType.TCOMA, tail, syncSet);
+            Node item = printItem(syncSet);
+            if (!match(Tokeniser.TokenType.TCOMA)) {
+                tail.addChild(item);
+                break;
+            }
+            Node next = new Node(NodeKind.NPRLST, "");
+            next.addChild(item);
+            tail.addChild(next);
+            tail = next;
+        }
+        return list;
     }
 
     private Node printItem(Set<Tokeniser.TokenType> syncSet) throws ParseException {
-        Node node = new Node("SPECIAL", "");
         if (match(Tokeniser.TokenType.TSTRG)) {
-            node.setType("NSTRG");
+            Node node = new Node(NodeKind.NSTRG, "");
             consume(Tokeniser.TokenType.TSTRG, node, syncSet);
-        } else {
-            node.addChild(expr(true, syncSet));
+            return node;
         }
-        return node;
+        return expr(syncSet);
+    }
+
+    /**
+     * Parses a single function definition, for a ParallelFunctionParser.
+     */
+    Node parseFunction(Set<Tokeniser.TokenType> syncSet) throws ParseException {
+        return func(syncSet);
+    }
+
+    SymbolTableEntry getCurrentEntry() {
+        return this.currentEntry;
+    }
+
+    /**
+     * Parses function definitions on a pool when reading from a complete
+     * TokenBuffer.
+     *
+     * @param functionPool The pool to use, or null to parse every function in
+     *                     sequence.
+     */
+    public void setFunctionPool(ForkJoinPool functionPool) {
+        this.functionPool = functionPool;
+    }
+
+    /**
+     * Creates a Parser for a lazy function body, reading from the same tokens and
+     * reporting to the same OutputController as this one.
+     *
+     * @param start   The index of the body's begin token.
+     * @param version The version of the symbol table to parse against.
+     */
+    Parser deferredBodyParser(int start, int version) {
+        return new Parser(new TokenCursor(tokens.getTokens(), start), outputController, names,
+                ((VersionedSymbolTable) symbolTable).asOf(version));
+    }
+
+    /**
+     * Leaves the statements of each function body to be parsed by forceBodies(),
+     * or otherwise the first time the function's children are read. Syntax
+     * errors in a body are reported when it is parsed rather than in order with
+     * the rest of the program, and do not stop the function's entry being added
+     * to the symbol table. The tree and errors are otherwise those of parsing
+     * the bodies in place, unless recovering from an error in a body reads past
+     * the body's end. Must be called before parse().
+     *
+     * @param lazyFunctionBodies true to parse function bodies on demand.
+     */
+    public void setLazyFunctionBodies(boolean lazyFunctionBodies) {
+        this.lazyFunctionBodies = lazyFunctionBodies;
+        if (lazyFunctionBodies && !(symbolTable instanceof VersionedSymbolTable)) {
+            this.symbolTable = new VersionedSymbolTable(names);
+        }
+    }
+
+    /**
+     * Parses every function body that parse() left for later, in source order.
+     * Call it before relying on the OutputController's errors, as the errors in
+     * a body are only reported once it is parsed. Does nothing if function
+     * bodies are not lazy.
+     *
+     * @throws ParseException If a body cannot be parsed to its end, as parse()
+     *                        would have without lazy bodies.
+     */
+    public void forceBodies() throws ParseException {
+        for (int i = 0; i < deferredBodies.size(); i++) {
+            deferredBodies.get(i).force();
+        }
+        deferredBodies.clear();
+    }
+
+    /**
+     * Gives the tree to a listener as it is parsed instead of building it. While
+     * a listener is set, functions are parsed in sequence and in full.
+     *
+     * @param listener The listener, or null to build the tree.
+     */
+    public void setParseListener(ParseListener listener) {
+        this.listener = listener;
+        if (listener != null) {
+            // INFO: Nothing seeks back while a listener is set
+            tokens.bound();
+            this.functionLink = new Node(NodeKind.NFUNCS, "");
+            this.statementLink = new Node(NodeKind.NSTATS, "");
+        }
+    }
+
+    public NameTable getNameTable() {
+        return this.names;
     }
 
     public SymbolTable getSymbolTable() {
         return this.symbolTable;
     }
 
+    private static final class ListenerError {
+        private final String description;
+        private final int line;
+        private final int col;
+
+        ListenerError(String description, int line, int col) {
+            this.description = description;
+            this.line = line;
+            this.col = col;
+        }
+    }
 }
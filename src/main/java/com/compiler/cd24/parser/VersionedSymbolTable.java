@@ -0,0 +1,111 @@
+package com.compiler.cd24.parser;
+
+import com.compiler.cd24.semantic.SymbolTable;
+import com.compiler.cd24.semantic.SymbolTableEntry;
+import com.compiler.cd24.util.NameTable;
+import java.util.Arrays;
+
+/**
+ * VersionedSymbolTable class
+ *
+ * This class is a symbol table that remembers every entry entered under each
+ * name, and when, so it can later be read as it was at an earlier point. The
+ * Parser uses it for lazy function bodies, which are parsed after the rest of
+ * the program but must see the table as it was when the function was reached.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+final class VersionedSymbolTable extends SymbolTable {
+    private History[] histories;
+    private int version;
+
+    VersionedSymbolTable(NameTable names) {
+        super(names);
+        this.histories = new History[16];
+        this.version = 0;
+    }
+
+    @Override
+    public void enter(int nameId, SymbolTableEntry symbolTableEntry) {
+        super.enter(nameId, symbolTableEntry);
+        if (nameId >= histories.length) {
+            histories = Arrays.copyOf(histories, Math.max(nameId + 1, histories.length * 2));
+        }
+        if (histories[nameId] == null) {
+            histories[nameId] = new History();
+        }
+        histories[nameId].add(version++, symbolTableEntry);
+    }
+
+    /**
+     * @return The current version, which counts the entries entered so far.
+     */
+    int version() {
+        return version;
+    }
+
+    /**
+     * Returns a view of the table as it was at a version. Entries entered into
+     * the view are only seen by the view.
+     *
+     * @param version A version returned by version().
+     * @return The view.
+     */
+    SymbolTable asOf(int version) {
+        return new View(this, version);
+    }
+
+    private SymbolTableEntry find(int nameId, int version) {
+        if (nameId < 0 || nameId >= histories.length || histories[nameId] == null) {
+            return null;
+        }
+        return histories[nameId].find(version);
+    }
+
+    /**
+     * The entries entered under one name, oldest first.
+     */
+    private static final class History {
+        private int[] versions = new int[1];
+        private SymbolTableEntry[] entries = new SymbolTableEntry[1];
+        private int size;
+
+        void add(int version, SymbolTableEntry entry) {
+            if (size == versions.length) {
+                versions = Arrays.copyOf(versions, size * 2);
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            versions[size] = version;
+            entries[size++] = entry;
+        }
+
+        SymbolTableEntry find(int version) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (versions[i] < version) {
+                    return entries[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class View extends SymbolTable {
+        private final VersionedSymbolTable table;
+        private final int version;
+
+        View(VersionedSymbolTable table, int version) {
+            super(table.getNameTable(), 0);
+            this.table = table;
+            this.version = version;
+        }
+
+        @Override
+        public SymbolTableEntry find(int nameId) {
+            SymbolTableEntry entry = super.find(nameId);
+            return entry != null ? entry : table.find(nameId, version);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.compiler.cd24.semantic;
 
+import com.compiler.cd24.util.Ast;
+import com.compiler.cd24.util.AstCursor;
 import com.compiler.cd24.util.Node;
+import com.compiler.cd24.util.NodeKind;
 import com.compiler.cd24.util.DataType;
 import com.compiler.cd24.util.OutputController;
 import java.util.List;
@@ -10,6 +13,7 @@ public class SemanticAnalyser {
     private SymbolTable symbolTable;
     private List<String> errors;
     private OutputController outputController;
+    private Ast ast;
 
     public SemanticAnalyser() {
         this.symbolTable = new SymbolTable();
@@ -24,55 +28,54 @@ public class SemanticAnalyser {
     }
 
     public SymbolTable analyse(Node root) {
-        traverse(root);
-        return this.symbolTable;
+        if (root == null) {
+            return this.symbolTable;
+        }
+        return analyse(Ast.of(root));
     }
 
-    private void traverse(Node node) {
-        if (node == null)
-            return;
-        String nodeType = node.getType();
+    public SymbolTable analyse(Ast ast) {
+        this.ast = ast;
+        traverse(ast.root());
+        return this.symbolTable;
+    }
 
-        switch (nodeType) {
-            case "NASGN":
-                handleAssignmentChecks(node);
-                break;
-            case "NPLEQ":
-                handleAssignmentChecks(node);
-                break;
-            case "NMNEQ":
-                handleAssignmentChecks(node);
-                break;
-            case "NSTEQ":
-                handleAssignmentChecks(node);
-                break;
-            case "NDVEQ":
-                handleAssignmentChecks(node);
-                break;
-            default:
-                for (Node child : node.getChildren()) {
-                    traverse(child);
-                }
-                break;
-        }
+    // INFO: Walks the subtree in pre-order, skipping the children of assignments
+    private void traverse(int root) {
+        AstCursor cursor = new AstCursor(ast, root);
+        boolean enterChildren;
+        do {
+            int node = cursor.node();
+            switch (ast.kind(node)) {
+                case NASGN:
+                case NPLEQ:
+                case NMNEQ:
+                case NSTEQ:
+                case NDVEQ:
+                    handleAssignmentChecks(node);
+                    enterChildren = false;
+                    break;
+                default:
+                    enterChildren = true;
+                    break;
+            }
+        } while (cursor.next(enterChildren));
     }
 
-    private void handleAssignmentChecks(Node node) {
-        List<Node> children = node.getChildren();
-        if (children.size() >= 2) {
-            Node varNode = children.get(0);
-            Node exprNode = children.get(1);
-            String varName = varNode.getValue();
-            if (!symbolTable.isDeclared(varName)) {
-                errors.add("Variable '" + varName + "' is not declared.");
+    private void handleAssignmentChecks(int node) {
+        if (ast.childCount(node) >= 2) {
+            int varNode = ast.child(node, 0);
+            int exprNode = ast.child(node, 1);
+            if (!symbolTable.isDeclared(ast.nameId(varNode))) {
+                errors.add("Variable '" + ast.value(varNode) + "' is not declared.");
             }
-            SymbolTableEntry currentEntry = this.symbolTable.find(varName);
-            if (exprNode.getType().equals("NADD") || exprNode.getType().equals("NSUB")
-                    || exprNode.getType().equals("NMUL") || exprNode.getType().equals("NDIV")
-                    || exprNode.getType().equals("NMOD") || exprNode.getType().equals("NPOW")) {
+            SymbolTableEntry currentEntry = this.symbolTable.find(ast.nameId(varNode));
+            if (ast.kind(exprNode) == NodeKind.NADD || ast.kind(exprNode) == NodeKind.NSUB
+                    || ast.kind(exprNode) == NodeKind.NMUL || ast.kind(exprNode) == NodeKind.NDIV
+                    || ast.kind(exprNode) == NodeKind.NMOD || ast.kind(exprNode) == NodeKind.NPOW) {
                 if (!checkTypeChildNodes(exprNode, currentEntry.getDataType())) {
-                    outputController.addSemanticError("Type mismatch on - " + varNode.getValue(),
-                            varNode.getCol(), varNode.getLine());
+                    outputController.addSemanticError("Type mismatch on - " + ast.value(varNode),
+                            ast.col(varNode), ast.line(varNode));
                 }
 
             } else {
@@ -80,8 +83,8 @@ public class SemanticAnalyser {
                 if (checkTypeChildNodes(node, currentEntry.getDataType())) {
                     currentEntry.setInitialised(true);
                 } else {
-                    outputController.addSemanticError("Type mismatch on - " + varNode.getValue(),
-                            varNode.getCol(), varNode.getLine());
+                    outputController.addSemanticError("Type mismatch on - " + ast.value(varNode),
+                            ast.col(varNode), ast.line(varNode));
                 }
             }
         } else {
@@ -89,16 +92,15 @@ public class SemanticAnalyser {
         }
     }
 
-    private boolean checkTypeChildNodes(Node node, DataType dataType) {
+    private boolean checkTypeChildNodes(int node, DataType dataType) {
         // TODO: Add type checking for bool
-        List<Node> children = node.getChildren();
-        Node child1 = children.get(0);
-        Node child2 = children.get(1);
+        int child1 = ast.child(node, 0);
+        int child2 = ast.child(node, 1);
 
         // INFO: var + var
-        if (child1.getType().equals("NSIMV") && child2.getType().equals("NSIMV")) {
-            SymbolTableEntry entry1 = symbolTable.find(child1.getValue());
-            SymbolTableEntry entry2 = symbolTable.find(child2.getValue());
+        if (ast.kind(child1) == NodeKind.NSIMV && ast.kind(child2) == NodeKind.NSIMV) {
+            SymbolTableEntry entry1 = symbolTable.find(ast.nameId(child1));
+            SymbolTableEntry entry2 = symbolTable.find(ast.nameId(child2));
             if (entry1.getDataType() == entry2.getDataType() && entry1.getDataType() == dataType) {
                 if (entry1.getDataType() == DataType.INTEGER) {
                     return true;
@@ -108,38 +110,38 @@ public class SemanticAnalyser {
             }
         }
         // INFO: var + float/int
-        else if (child1.getType().equals("NSIMV") && child2.getType().equals("NILIT")
-                || child2.getType().equals("NFLIT")) {
-            SymbolTableEntry var = symbolTable.find(child1.getValue());
-            if (var.getDataType() == DataType.INTEGER && child2.getType().equals("NILIT")
+        else if (ast.kind(child1) == NodeKind.NSIMV && ast.kind(child2) == NodeKind.NILIT
+                || ast.kind(child2) == NodeKind.NFLIT) {
+            SymbolTableEntry var = symbolTable.find(ast.nameId(child1));
+            if (var.getDataType() == DataType.INTEGER && ast.kind(child2) == NodeKind.NILIT
                     && var.getDataType() == dataType) {
                 return true;
-            } else if (var.getDataType() == DataType.FLOAT && child2.getType().equals("NFLIT")
+            } else if (var.getDataType() == DataType.FLOAT && ast.kind(child2) == NodeKind.NFLIT
                     && var.getDataType() == dataType) {
                 return true;
             }
         }
         // INFO: float/int + var
-        else if (child1.getType().equals("NILIT")
-                || child1.getType().equals("NFLIT") && child2.getType().equals("NSIMV")) {
-            SymbolTableEntry var = symbolTable.find(child2.getValue());
-            if (child1.getType().equals("NILIT") && var.getDataType() == DataType.INTEGER
+        else if (ast.kind(child1) == NodeKind.NILIT
+                || ast.kind(child1) == NodeKind.NFLIT && ast.kind(child2) == NodeKind.NSIMV) {
+            SymbolTableEntry var = symbolTable.find(ast.nameId(child2));
+            if (ast.kind(child1) == NodeKind.NILIT && var.getDataType() == DataType.INTEGER
                     && var.getDataType() == dataType) {
                 return true;
-            } else if (var.getDataType() == DataType.FLOAT && child2.getValue().equals("NFLIT")
+            } else if (var.getDataType() == DataType.FLOAT && ast.value(child2).equals("NFLIT")
                     && var.getDataType() == dataType) {
                 return true;
             }
         }
         // INFO: float/int + float/int
-        else if (child1.getType().equals("NILIT")
-                || child1.getType().equals("NFLIT") && child2.getType().equals("NILIT")
-                || child2.getType().equals("NFLIT")) {
-            if (child1.getType().equals("NILIT") && child1.getType().equals("NILIT")
-                    && SymbolTableEntry.nodeTypeConversion(child1.getType()) == dataType) {
+        else if (ast.kind(child1) == NodeKind.NILIT
+                || ast.kind(child1) == NodeKind.NFLIT && ast.kind(child2) == NodeKind.NILIT
+                || ast.kind(child2) == NodeKind.NFLIT) {
+            if (ast.kind(child1) == NodeKind.NILIT && ast.kind(child1) == NodeKind.NILIT
+                    && SymbolTableEntry.nodeTypeConversion(ast.kind(child1)) == dataType) {
                 return true;
-            } else if (child1.getType().equals("NFLIT") && child1.getType().equals("NFLIT")
-                    && SymbolTableEntry.nodeTypeConversion(child1.getType()) == dataType) {
+            } else if (ast.kind(child1) == NodeKind.NFLIT && ast.kind(child1) == NodeKind.NFLIT
+                    && SymbolTableEntry.nodeTypeConversion(ast.kind(child1)) == dataType) {
                 return true;
             }
 
@@ -1,6 +1,8 @@
 package com.compiler.cd24.semantic;
 
 import com.compiler.cd24.util.DataType;
+import com.compiler.cd24.util.NameTable;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -13,65 +15,138 @@ import java.util.Map;
  * A single symbol table represents a scope with all contained entries
  * therefore attributed to that scope.
  * 
+ * Entries are stored in an array indexed by the NameTable id of their name,
+ * so lookups from AST nodes, which already carry the id, need no hashing.
+ * The String based methods resolve the name through the NameTable first.
+ * 
  * Date: 2024-09-27
  *
  * @author Thomas Bandy, Benjamin Rogers
- * @version 1.0
+ * @version 1.1
  */
 public class SymbolTable {
-    private Map<String, SymbolTableEntry> table;
+    private final NameTable names;
+    private SymbolTableEntry[] table;
+    // INFO: Ids in the order they were first entered, for iteration
+    private int[] declared;
+    private int declaredCount;
+    private Map<Integer, SymbolTableEntry> offsets;
     private int globalOffset;
 
     public SymbolTable() {
-        table = new HashMap<String, SymbolTableEntry>();
+        this(new NameTable());
+    }
+
+    public SymbolTable(NameTable names) {
+        this(names, names.size());
+    }
+
+    /**
+     * @param names    The NameTable the entries' names are interned in.
+     * @param capacity The number of name ids to make room for up front.
+     */
+    protected SymbolTable(NameTable names, int capacity) {
+        this.names = names;
+        this.table = new SymbolTableEntry[Math.max(capacity, 16)];
+        this.declared = new int[16];
+        this.declaredCount = 0;
+        this.offsets = new HashMap<Integer, SymbolTableEntry>();
         // this.globalOffset = 1000;
         this.globalOffset = 0;
     }
 
     public void destroy() {
-        table.clear();
+        Arrays.fill(table, null);
+        declaredCount = 0;
+        offsets.clear();
     }
 
     public SymbolTable copy() {
-        SymbolTable copy = new SymbolTable();
-        for (Map.Entry<String, SymbolTableEntry> entry : table.entrySet()) {
-            copy.enter(entry.getValue());
+        SymbolTable copy = new SymbolTable(names);
+        for (int i = 0; i < declaredCount; i++) {
+            copy.enter(declared[i], table[declared[i]]);
         }
         return copy;
     }
 
     public void enter(SymbolTableEntry symbolTableEntry) {
-        if (!symbolTableEntry.getName().equals("")) {
-            table.put(symbolTableEntry.getName(), symbolTableEntry);
+        if (symbolTableEntry.getName().equals("")) {
+            return;
+        }
+        int nameId = symbolTableEntry.getNameId();
+        if (nameId == NameTable.NO_NAME) {
+            nameId = names.intern(symbolTableEntry.getName());
+            symbolTableEntry.setNameId(nameId);
+        }
+        enter(nameId, symbolTableEntry);
+    }
+
+    /**
+     * Enters an entry under a name id, which the entry may since have been
+     * renamed from.
+     *
+     * @param nameId           The NameTable id to enter the entry under.
+     * @param symbolTableEntry The entry.
+     */
+    public void enter(int nameId, SymbolTableEntry symbolTableEntry) {
+        if (nameId >= table.length) {
+            table = Arrays.copyOf(table, Math.max(nameId + 1, table.length * 2));
+        }
+        if (table[nameId] == null) {
+            if (declaredCount == declared.length) {
+                declared = Arrays.copyOf(declared, declaredCount * 2);
+            }
+            declared[declaredCount++] = nameId;
+        }
+        table[nameId] = symbolTableEntry;
+    }
+
+    /**
+     * @param nameId The NameTable id of a name.
+     * @return The entry for the name, or null if it has not been entered.
+     */
+    public SymbolTableEntry find(int nameId) {
+        if (nameId < 0 || nameId >= table.length) {
+            return null;
         }
+        return table[nameId];
     }
 
-    public SymbolTableEntry find(String name) {
-        return table.get(name);
+    public SymbolTableEntry find(CharSequence name) {
+        return find(names.lookup(name));
     }
 
     public SymbolTableEntry findWithOffset(int offset) {
-        for (Map.Entry<String, SymbolTableEntry> i : this.table.entrySet()) {
-            if (i.getValue().getOffset() == offset) {
-                return this.table.get(i.getKey());
+        SymbolTableEntry entry = offsets.get(offset);
+        if (entry != null) {
+            return entry;
+        }
+        for (int i = 0; i < declaredCount; i++) {
+            if (table[declared[i]].getOffset() == offset) {
+                return table[declared[i]];
             }
         }
         return null;
     }
 
     public SymbolTableEntry get_attributes(String name) {
-        return table.get(name);
+        return find(name);
+    }
+
+    public boolean isDeclared(int nameId) {
+        return find(nameId) != null;
     }
 
     public boolean isDeclared(String name) {
-        if (table.get(name) != null) {
-            return true;
-        }
-        return false;
+        return find(name) != null;
+    }
+
+    public DataType getDataType(int nameId) {
+        return find(nameId).getDataType();
     }
 
     public DataType getDataType(String name) {
-        return table.get(name).getDataType();
+        return find(name).getDataType();
     }
 
     // TODO: Currently only allocating in a global scope
@@ -86,28 +161,40 @@ public class SymbolTable {
         return "1";
     }
 
-    public void setOffset(String name, int offset) {
-        SymbolTableEntry entry = table.get(name);
+    public void setOffset(int nameId, int offset) {
+        SymbolTableEntry entry = find(nameId);
         entry.setOffset(offset);
+        offsets.put(offset, entry);
+    }
+
+    public void setOffset(String name, int offset) {
+        setOffset(names.lookup(name), offset);
+    }
+
+    public int getOffset(int nameId) {
+        return find(nameId).getOffset();
     }
 
     public int getOffset(String name) {
-        return table.get(name).getOffset();
+        return find(name).getOffset();
     }
 
     public void declare(String name) {
-        SymbolTableEntry entry = new SymbolTableEntry(name);
-        table.put(name, entry);
+        enter(new SymbolTableEntry(name));
+    }
+
+    public NameTable getNameTable() {
+        return names;
     }
 
     @Override
     public String toString() {
-        if (table.isEmpty()) {
+        if (declaredCount == 0) {
             return "Symbol table is empty";
         }
         StringBuilder result = new StringBuilder();
-        for (Map.Entry<String, SymbolTableEntry> entry : table.entrySet()) {
-            result.append(entry.toString() + "\n");
+        for (int i = 0; i < declaredCount; i++) {
+            result.append(names.name(declared[i]) + "=" + table[declared[i]].toString() + "\n");
         }
         return result.toString();
     }
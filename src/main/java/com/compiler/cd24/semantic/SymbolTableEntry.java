@@ -1,6 +1,9 @@
 package com.compiler.cd24.semantic;
 
 import com.compiler.cd24.util.DataType;
+import com.compiler.cd24.util.NameTable;
+import com.compiler.cd24.util.NodeKind;
+
 /**
  * SymbolTableEntry class
  * 
@@ -17,6 +20,7 @@ import com.compiler.cd24.util.DataType;
 
 public class SymbolTableEntry {
     private String name;
+    private int nameId;
     private SymbolType symbolType;
     private String memoryLocation;
     private String value;
@@ -32,6 +36,7 @@ public class SymbolTableEntry {
     /* -------------- Constructors -------------- */
     public SymbolTableEntry() {
         this.name = null;
+        this.nameId = NameTable.NO_NAME;
         this.symbolType = null;
         this.memoryLocation = null;
         this.value = null;
@@ -47,6 +52,7 @@ public class SymbolTableEntry {
 
     public SymbolTableEntry(SymbolType symbolType) {
         this.name = null;
+        this.nameId = NameTable.NO_NAME;
         this.symbolType = symbolType;
         this.memoryLocation = null;
         this.value = null;
@@ -62,6 +68,7 @@ public class SymbolTableEntry {
 
     public SymbolTableEntry(String name) {
         this.name = name;
+        this.nameId = NameTable.NO_NAME;
         this.symbolType = null;
         this.memoryLocation = null;
         this.value = null;
@@ -77,6 +84,7 @@ public class SymbolTableEntry {
 
     public SymbolTableEntry(String name, SymbolType symbolType, boolean isInitialised) {
         this.name = name;
+        this.nameId = NameTable.NO_NAME;
         this.symbolType = symbolType;
         this.memoryLocation = null;
         this.value = null;
@@ -91,6 +99,7 @@ public class SymbolTableEntry {
 
     public SymbolTableEntry(String name, SymbolType symbolType, String value, DataType dataType) {
         this.name = name;
+        this.nameId = NameTable.NO_NAME;
         this.symbolType = symbolType;
         this.memoryLocation = null;
         this.value = value;
@@ -104,6 +113,7 @@ public class SymbolTableEntry {
     public SymbolTableEntry(String name, SymbolType symbolType, String value, DataType dataType,
             boolean isInitialised) {
         this.name = name;
+        this.nameId = NameTable.NO_NAME;
         this.symbolType = symbolType;
         this.memoryLocation = null;
         this.value = value;
@@ -120,6 +130,10 @@ public class SymbolTableEntry {
         return name;
     }
 
+    public int getNameId() {
+        return nameId;
+    }
+
     public SymbolType getSymbolType() {
         return symbolType;
     }
@@ -167,6 +181,16 @@ public class SymbolTableEntry {
     /* -------------- Setters -------------- */
     public void setName(String name) {
         this.name = name;
+        this.nameId = NameTable.NO_NAME;
+    }
+
+    public void setName(String name, int nameId) {
+        this.name = name;
+        this.nameId = nameId;
+    }
+
+    public void setNameId(int nameId) {
+        this.nameId = nameId;
     }
 
     public void setSymbolType(SymbolType symbolType) {
@@ -221,16 +245,19 @@ public class SymbolTableEntry {
                 dataType != null ? dataType.toString() : "null", isInitialised);
     }
 
-    public static DataType nodeTypeConversion(String nodeType) {
-        if (nodeType.equals("NFLIT")) {
-            return DataType.FLOAT;
-        } else if (nodeType.equals("NILIT")) {
-            return DataType.INTEGER;
-        } else if (nodeType.equals("NSTRG")) {
-            return DataType.STRING;
-        } else if (nodeType.equals("NFALS") || nodeType.equals("NTRUE")) {
-            return DataType.BOOLEAN;
+    public static DataType nodeTypeConversion(NodeKind nodeKind) {
+        switch (nodeKind) {
+            case NFLIT:
+                return DataType.FLOAT;
+            case NILIT:
+                return DataType.INTEGER;
+            case NSTRG:
+                return DataType.STRING;
+            case NFALS:
+            case NTRUE:
+                return DataType.BOOLEAN;
+            default:
+                return DataType.UNDEF;
         }
-        return DataType.UNDEF;
     }
 }
@@ -0,0 +1,247 @@
+package com.compiler.cd24.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Ast class
+ *
+ * This class stores a whole abstract syntax tree in parallel primitive arrays
+ * instead of one Node object per node. A node is addressed by an int handle,
+ * its index in the arrays, and records its type, its first child, its next
+ * sibling, its value, its name id, its literal value, its line and its column.
+ * Kinds are stored by ordinal and values are interned, so each node holds only
+ * ints.
+ *
+ * Nodes are numbered in pre-order, so walking the tree with an AstCursor reads
+ * the arrays from front to back. The semantic analyser and code generator walk
+ * the tree this way rather than recursing over Nodes.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public class Ast {
+    public static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final NodeKind[] KINDS = NodeKind.values();
+
+    private int[] kind;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] valueId;
+    private int[] nameId;
+    // INFO: Parsed value of an NILIT, or the raw bits of an NFLIT's double
+    private long[] literal;
+    private int[] line;
+    private int[] col;
+    private int size;
+
+    private final NameTable values = new NameTable();
+
+    Ast(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.kind = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.nextSibling = new int[capacity];
+        this.valueId = new int[capacity];
+        this.nameId = new int[capacity];
+        this.literal = new long[capacity];
+        this.line = new int[capacity];
+        this.col = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Copies a tree of Nodes into a new Ast. The tree is walked with an explicit
+     * stack, so a tree of any depth can be copied.
+     *
+     * @param root The root of the tree, which must not be null.
+     * @return The Ast, with the root at handle 0.
+     */
+    public static Ast of(Node root) {
+        Ast ast = new Ast(INITIAL_CAPACITY);
+        // INFO: The last child linked so far of each node, used to chain siblings
+        int[] lastChild = new int[INITIAL_CAPACITY];
+        Deque<Node> nodes = new ArrayDeque<>();
+        int[] parents = new int[INITIAL_CAPACITY];
+        int depth = 0;
+        nodes.push(root);
+        parents[depth++] = NONE;
+
+        while (depth > 0) {
+            Node node = nodes.pop();
+            int parent = parents[--depth];
+            int handle = ast.add(node);
+            if (handle == lastChild.length) {
+                lastChild = Arrays.copyOf(lastChild, lastChild.length * 2);
+            }
+            lastChild[handle] = NONE;
+            if (parent != NONE) {
+                ast.link(parent, lastChild[parent], handle);
+                lastChild[parent] = handle;
+            }
+            // INFO: Pushed in reverse so the first child is numbered next
+            int childCount = node.getChildCount();
+            if (depth + childCount > parents.length) {
+                parents = Arrays.copyOf(parents, Math.max(parents.length * 2, depth + childCount));
+            }
+            for (int i = childCount - 1; i >= 0; i--) {
+                nodes.push(node.getChild(i));
+                parents[depth++] = handle;
+            }
+        }
+        return ast;
+    }
+
+    private int add(Node node) {
+        return add(node.getKind().ordinal(), node.getValueText(), node.getNameId(), node.getIntegerValue(),
+                node.getLine(), node.getCol());
+    }
+
+    /**
+     * Adds a node with no children or siblings yet, as the next in pre-order.
+     *
+     * @return The handle of the node.
+     */
+    int add(int kindOrdinal, CharSequence value, int nameId, long literal, int line, int col) {
+        if (size == kind.length) {
+            grow();
+        }
+        this.kind[size] = kindOrdinal;
+        this.firstChild[size] = NONE;
+        this.nextSibling[size] = NONE;
+        this.valueId[size] = values.intern(value);
+        this.nameId[size] = nameId;
+        this.literal[size] = literal;
+        this.line[size] = line;
+        this.col[size] = col;
+        return size++;
+    }
+
+    /**
+     * Links a node added by add() into the tree as the next child of a parent.
+     *
+     * @param parent          The handle of the parent.
+     * @param previousSibling The handle of the parent's last child so far, or
+     *                        NONE if this is its first.
+     * @param child           The handle of the child.
+     */
+    void link(int parent, int previousSibling, int child) {
+        if (previousSibling == NONE) {
+            firstChild[parent] = child;
+        } else {
+            nextSibling[previousSibling] = child;
+        }
+    }
+
+    private void grow() {
+        int capacity = kind.length * 2;
+        kind = Arrays.copyOf(kind, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        valueId = Arrays.copyOf(valueId, capacity);
+        nameId = Arrays.copyOf(nameId, capacity);
+        literal = Arrays.copyOf(literal, capacity);
+        line = Arrays.copyOf(line, capacity);
+        col = Arrays.copyOf(col, capacity);
+    }
+
+    /**
+     * @param node The handle of a node.
+     * @return The number of children of the node.
+     */
+    public int childCount(int node) {
+        int count = 0;
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Finds a child of a node by position, as Node.getChildren().get() would.
+     *
+     * @param node  The handle of a node.
+     * @param index The position of the child, counting from 0.
+     * @return The handle of the child.
+     * @throws IndexOutOfBoundsException If the node has no child at the index.
+     */
+    public int child(int node, int index) {
+        int child = firstChild[node];
+        for (int i = 0; i < index && child != NONE; i++) {
+            child = nextSibling[child];
+        }
+        if (child == NONE) {
+            Objects.checkIndex(index, childCount(node));
+        }
+        return child;
+    }
+
+    // ------------------------- Getters ------------------------- //
+    public int root() {
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public NodeKind kind(int node) {
+        return KINDS[kind[node]];
+    }
+
+    public String type(int node) {
+        return KINDS[kind[node]].name();
+    }
+
+    public int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    public int nextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    public String value(int node) {
+        return values.name(valueId[node]);
+    }
+
+    /**
+     * @return The id of a node's value among values().
+     */
+    int valueId(int node) {
+        return valueId[node];
+    }
+
+    /**
+     * @return The distinct values of the nodes, interned.
+     */
+    NameTable values() {
+        return values;
+    }
+
+    public int nameId(int node) {
+        return nameId[node];
+    }
+
+    public long integerValue(int node) {
+        return literal[node];
+    }
+
+    public double floatValue(int node) {
+        return Double.longBitsToDouble(literal[node]);
+    }
+
+    public int line(int node) {
+        return line[node];
+    }
+
+    public int col(int node) {
+        return col[node];
+    }
+}
@@ -0,0 +1,119 @@
+package com.compiler.cd24.util;
+
+import java.util.Arrays;
+
+/**
+ * AstCursor class
+ *
+ * This class walks an Ast without recursion. The cursor sits on one node and
+ * keeps a stack of the nodes above it, so it can move to a node's first child,
+ * its next sibling or its parent. It never moves above the node it was started
+ * on, so a cursor can be used to walk a single subtree.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public class AstCursor {
+    private final Ast ast;
+    private int node;
+    private int[] parents;
+    private int depth;
+
+    /**
+     * Creates a cursor on the root of an Ast.
+     *
+     * @param ast The tree to walk.
+     */
+    public AstCursor(Ast ast) {
+        this(ast, ast.root());
+    }
+
+    /**
+     * Creates a cursor that walks the subtree below a node.
+     *
+     * @param ast  The tree to walk.
+     * @param node The handle of the node to start on.
+     */
+    public AstCursor(Ast ast, int node) {
+        this.ast = ast;
+        this.node = node;
+        this.parents = new int[16];
+        this.depth = 0;
+    }
+
+    /**
+     * @return true if the cursor moved to the first child of the current node.
+     */
+    public boolean toFirstChild() {
+        int child = ast.firstChild(node);
+        if (child == Ast.NONE) {
+            return false;
+        }
+        if (depth == parents.length) {
+            parents = Arrays.copyOf(parents, depth * 2);
+        }
+        parents[depth++] = node;
+        node = child;
+        return true;
+    }
+
+    /**
+     * @return true if the cursor moved to the next sibling of the current node.
+     */
+    public boolean toNextSibling() {
+        if (depth == 0) {
+            return false;
+        }
+        int sibling = ast.nextSibling(node);
+        if (sibling == Ast.NONE) {
+            return false;
+        }
+        node = sibling;
+        return true;
+    }
+
+    /**
+     * @return true if the cursor moved to the parent of the current node.
+     */
+    public boolean toParent() {
+        if (depth == 0) {
+            return false;
+        }
+        node = parents[--depth];
+        return true;
+    }
+
+    /**
+     * Moves to the next node in pre-order.
+     *
+     * @param enterChildren false to skip the children of the current node.
+     * @return true if the cursor moved, false once the subtree is finished.
+     */
+    public boolean next(boolean enterChildren) {
+        if (enterChildren && toFirstChild()) {
+            return true;
+        }
+        while (depth > 0) {
+            if (toNextSibling()) {
+                return true;
+            }
+            toParent();
+        }
+        return false;
+    }
+
+    // ------------------------- Getters ------------------------- //
+    public int node() {
+        return node;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public NodeKind kind() {
+        return ast.kind(node);
+    }
+}
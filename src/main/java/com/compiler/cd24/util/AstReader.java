@@ -0,0 +1,317 @@
+package com.compiler.cd24.util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * AstReader class
+ *
+ * This class reads an Ast saved by an AstWriter, in the format described
+ * there. The reader is a cursor that moves through the nodes in pre-order and
+ * decodes each one straight from the buffer, so a file opened with open() is
+ * read from the memory map and never copied onto the heap. Only the offsets of
+ * the strings are found up front, and each string is decoded the first time
+ * it is asked for.
+ *
+ * A tool that needs one pass over the tree can use the cursor alone. A phase
+ * that needs to move about the tree, such as the semantic analyser, can copy
+ * it into an Ast with toAst().
+ *
+ * Counts and lengths are checked against the bytes left before they are used,
+ * and each node against the kinds and strings there are as it is read, so a
+ * truncated or corrupt file gives an IOException rather than a tree that
+ * points outside itself.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public final class AstReader {
+    private static final NodeKind[] KINDS = NodeKind.values();
+    private static final String TRUNCATED = "Truncated CD24 AST";
+    private static final String CORRUPT = "Corrupt CD24 AST";
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int[] stringOffsets;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final int nodesStart;
+
+    // INFO: The node the cursor is on
+    private int index;
+    private int header;
+    private int childCount;
+    private int valueIndex;
+    private long literal;
+    private int line;
+    private int col;
+    private int depth;
+    // INFO: The position of the last node that had one, which positions are read against
+    private int lastLine;
+    private int lastCol;
+    // INFO: Children still to be read of each node above the next one
+    private int[] remaining;
+    private int open;
+
+    /**
+     * Reads a saved Ast from a buffer. The buffer is read from its position and
+     * is not changed.
+     *
+     * @param buffer The buffer holding the saved Ast.
+     * @throws IOException If the buffer does not hold a saved Ast, or the
+     *                     header or string table is truncated.
+     */
+    public AstReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.duplicate();
+        for (byte magic : AstWriter.MAGIC) {
+            if (!this.buffer.hasRemaining() || this.buffer.get() != magic) {
+                throw new IOException("Not a saved CD24 AST");
+            }
+        }
+        int version = this.buffer.hasRemaining() ? this.buffer.get() : -1;
+        if (version != AstWriter.VERSION) {
+            throw new IOException("Unsupported AST format version " + version);
+        }
+        try {
+            // INFO: Every node and every string takes at least one byte
+            this.size = readCount();
+            int stringCount = readCount();
+            this.stringOffsets = new int[stringCount];
+            this.stringLengths = new int[stringCount];
+            this.strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                stringLengths[i] = readCount();
+                stringOffsets[i] = this.buffer.position();
+                this.buffer.position(stringOffsets[i] + stringLengths[i]);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException(TRUNCATED, e);
+        }
+        if (size > this.buffer.remaining()) {
+            throw new IOException(TRUNCATED);
+        }
+        this.nodesStart = this.buffer.position();
+        this.remaining = new int[16];
+        rewind();
+    }
+
+    /**
+     * Maps a file holding a saved Ast into memory and reads it.
+     *
+     * @param path The file to read.
+     * @return A reader before the first node.
+     * @throws IOException If the file cannot be read or does not hold a saved
+     *                     Ast.
+     */
+    public static AstReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // INFO: The mapping stays valid after the channel is closed
+            return new AstReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Moves the cursor back before the first node.
+     */
+    public void rewind() {
+        buffer.position(nodesStart);
+        index = -1;
+        lastLine = 0;
+        lastCol = 0;
+        open = 0;
+    }
+
+    /**
+     * Moves the cursor to the next node in pre-order.
+     *
+     * @return false if there are no more nodes.
+     * @throws IOException If the node is truncated or corrupt.
+     */
+    public boolean next() throws IOException {
+        if (index + 1 >= size) {
+            return false;
+        }
+        while (open > 0 && remaining[open - 1] == 0) {
+            open--;
+        }
+        if (open > 0) {
+            remaining[open - 1]--;
+        }
+        depth = open;
+        index++;
+        try {
+            header = readInt(Integer.MAX_VALUE);
+            childCount = (header >>> AstWriter.CHILD_SHIFT) & AstWriter.CHILDREN_FOLLOW;
+            if (childCount == AstWriter.CHILDREN_FOLLOW) {
+                // INFO: A node's children all follow it
+                childCount = readInt(size - index - 1);
+            }
+            valueIndex = (header & AstWriter.VALUE) != 0 ? readInt(strings.length - 1) : -1;
+            literal = (header & AstWriter.LITERAL) != 0 ? readVarint() : 0;
+            line = 0;
+            col = 0;
+            if ((header & AstWriter.POSITION) != 0) {
+                int lineChange = unzigzag(readVarint());
+                line = lastLine + lineChange;
+                col = lineChange == 0 ? lastCol + unzigzag(readVarint()) : (int) readVarint();
+                lastLine = line;
+                lastCol = col;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException(TRUNCATED, e);
+        }
+        if (header >>> AstWriter.KIND_SHIFT >= KINDS.length) {
+            throw new IOException(CORRUPT + ": unknown node kind " + (header >>> AstWriter.KIND_SHIFT));
+        }
+        if (childCount > 0) {
+            if (open == remaining.length) {
+                remaining = Arrays.copyOf(remaining, open * 2);
+            }
+            remaining[open++] = childCount;
+        }
+        return true;
+    }
+
+    /**
+     * Copies the whole tree into an Ast, from the first node whatever the
+     * cursor is on. The cursor is left after the last node.
+     *
+     * @param names The NameTable to intern the nodes' names into, which gives
+     *              them their name ids.
+     * @return The Ast.
+     * @throws IOException If a node is truncated or corrupt.
+     */
+    public Ast toAst(NameTable names) throws IOException {
+        Ast ast = new Ast(size);
+        // INFO: The last node read at each depth, or NONE once its parent is read
+        int[] path = new int[17];
+        rewind();
+        while (next()) {
+            int nameId = isName() ? names.intern(value()) : NameTable.NO_NAME;
+            int handle = ast.add(header >>> AstWriter.KIND_SHIFT, value(), nameId, literal, line, col);
+            if (depth + 1 >= path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+            if (depth > 0) {
+                ast.link(path[depth - 1], path[depth], handle);
+            }
+            path[depth] = handle;
+            path[depth + 1] = Ast.NONE;
+        }
+        return ast;
+    }
+
+    /**
+     * Reads a count of things that each take at least one of the bytes left.
+     */
+    private int readCount() throws IOException {
+        long count = readVarint();
+        if (count > buffer.remaining()) {
+            throw new IOException(TRUNCATED);
+        }
+        return (int) count;
+    }
+
+    /**
+     * Reads a varint that must be between 0 and max.
+     */
+    private int readInt(int max) throws IOException {
+        long value = readVarint();
+        if (value < 0 || value > max) {
+            throw new IOException(CORRUPT);
+        }
+        return (int) value;
+    }
+
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte next = buffer.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int unzigzag(long value) {
+        int bits = (int) value;
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+
+    // ------------------------- Getters ------------------------- //
+    /**
+     * @return The number of nodes in the tree.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The position of the current node in pre-order, which is its
+     *         handle in the Ast toAst() builds.
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * @return The number of nodes above the current one.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    public NodeKind kind() {
+        return KINDS[header >>> AstWriter.KIND_SHIFT];
+    }
+
+    public int childCount() {
+        return childCount;
+    }
+
+    public String value() {
+        if (valueIndex < 0) {
+            return "";
+        }
+        String value = strings[valueIndex];
+        if (value == null) {
+            byte[] bytes = new byte[stringLengths[valueIndex]];
+            buffer.get(stringOffsets[valueIndex], bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[valueIndex] = value;
+        }
+        return value;
+    }
+
+    /**
+     * @return true if the current node's value is an identifier's name.
+     */
+    public boolean isName() {
+        return (header & AstWriter.NAMED) != 0;
+    }
+
+    public long integerValue() {
+        return literal;
+    }
+
+    public double floatValue() {
+        return Double.longBitsToDouble(literal);
+    }
+
+    public int line() {
+        return line;
+    }
+
+    public int col() {
+        return col;
+    }
+}
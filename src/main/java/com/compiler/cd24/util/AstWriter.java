@@ -0,0 +1,139 @@
+package com.compiler.cd24.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * AstWriter class
+ *
+ * This class saves an Ast in a compact binary form, so a parsed program can be
+ * loaded again by an AstReader without lexing or parsing it. Integers are
+ * written as varints, seven bits to a byte with the high bit set on every byte
+ * but the last, and signed ones are zigzag encoded first so small negative
+ * numbers stay short. The file holds:
+ *
+ * - the magic bytes CDAST and a format version byte
+ * - the number of nodes and the number of strings
+ * - the string table, each string as its UTF-8 length and bytes
+ * - the nodes in pre-order, each as a header followed by its number of
+ * children if that did not fit in the header, the index of its value in the
+ * string table if VALUE is set, its literal if LITERAL is set, and its line
+ * and column if POSITION is set
+ *
+ * A header holds the node's kind ordinal shifted left by six, then two bits of
+ * child count where 3 means the count follows, then the VALUE, NAMED, LITERAL
+ * and POSITION flags. Most nodes have at most two children and an empty value,
+ * so the header is all there is besides the position.
+ *
+ * A position is written as the change in line from the last node that had
+ * one, then the change in column if the line is the same or the column itself
+ * if it is not. Nodes with no position, such as list nodes, write nothing.
+ * Name ids belong to the compilation that parsed the tree, so only whether a
+ * node's value is a name is saved, and the reader interns the names again.
+ * Kinds are saved by ordinal, so changing NodeKind needs a new version.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public final class AstWriter {
+    static final byte[] MAGIC = { 'C', 'D', 'A', 'S', 'T' };
+    static final int VERSION = 1;
+    static final int KIND_SHIFT = 6;
+    static final int CHILD_SHIFT = 4;
+    static final int CHILDREN_FOLLOW = 3;
+    static final int VALUE = 8;
+    static final int NAMED = 4;
+    static final int LITERAL = 2;
+    static final int POSITION = 1;
+
+    private final OutputStream out;
+
+    private AstWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Saves an Ast to a file, replacing anything already there.
+     *
+     * @param ast  The tree to save.
+     * @param path The file to save it to.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Ast ast, Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            new AstWriter(out).write(ast);
+        }
+    }
+
+    private void write(Ast ast) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        NameTable values = ast.values();
+        writeVarint(ast.size());
+        writeVarint(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            byte[] bytes = values.name(i).getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            out.write(bytes);
+        }
+
+        int lastLine = 0;
+        int lastCol = 0;
+        for (int node = 0; node < ast.size(); node++) {
+            long literal = ast.integerValue(node);
+            int line = ast.line(node);
+            int col = ast.col(node);
+            int childCount = ast.childCount(node);
+            boolean valued = !ast.value(node).isEmpty();
+            boolean positioned = line != 0 || col != 0;
+            int header = ast.kind(node).ordinal() << KIND_SHIFT
+                    | Math.min(childCount, CHILDREN_FOLLOW) << CHILD_SHIFT;
+            if (valued) {
+                header |= VALUE;
+            }
+            if (ast.nameId(node) != NameTable.NO_NAME) {
+                header |= NAMED;
+            }
+            if (literal != 0) {
+                header |= LITERAL;
+            }
+            if (positioned) {
+                header |= POSITION;
+            }
+            writeVarint(header);
+            if (childCount >= CHILDREN_FOLLOW) {
+                writeVarint(childCount);
+            }
+            if (valued) {
+                writeVarint(ast.valueId(node));
+            }
+            if (literal != 0) {
+                writeVarint(literal);
+            }
+            if (positioned) {
+                writeVarint(zigzag(line - lastLine));
+                writeVarint(line == lastLine ? zigzag(col - lastCol) : col);
+                lastLine = line;
+                lastCol = col;
+            }
+        }
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+}
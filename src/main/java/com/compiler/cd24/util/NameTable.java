@@ -0,0 +1,137 @@
+package com.compiler.cd24.util;
+
+import com.compiler.cd24.lexer.Lexeme;
+import java.util.Arrays;
+
+/**
+ * NameTable class
+ *
+ * This class interns the identifiers of a compilation. Each distinct name is
+ * stored once and given a dense int id, starting at 0, in the order the names
+ * are first seen. The Parser records the id on every identifier Node and the
+ * symbol table is keyed by it, so the semantic analyser and code generator
+ * compare ints rather than hashing Strings.
+ *
+ * Names are hashed the same way as String.hashCode(), so a source Lexeme can
+ * be looked up without first being copied into a String.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public class NameTable {
+    public static final int NO_NAME = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // INFO: Open addressing table of id + 1, where 0 marks an empty slot
+    private int[] slots;
+    private String[] names;
+    private int[] hashes;
+    private int size;
+
+    public NameTable() {
+        this.slots = new int[INITIAL_CAPACITY * 2];
+        this.names = new String[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the id of a name, adding the name to the table if it is new.
+     *
+     * @param name The characters of the name.
+     * @return The id of the name.
+     */
+    public int intern(CharSequence name) {
+        int hash = hashOf(name);
+        int slot = findSlot(name, hash);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        if (size == names.length) {
+            grow();
+            slot = findSlot(name, hash);
+        }
+        int id = size++;
+        names[id] = name.toString();
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        return id;
+    }
+
+    /**
+     * Returns the id of a name without adding it to the table.
+     *
+     * @param name The characters of the name.
+     * @return The id of the name, or NO_NAME if it has not been interned.
+     */
+    public int lookup(CharSequence name) {
+        if (name == null) {
+            return NO_NAME;
+        }
+        int slot = findSlot(name, hashOf(name));
+        return slots[slot] - 1;
+    }
+
+    /**
+     * @param id An id returned by intern().
+     * @return The name with the given id.
+     */
+    public String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * @return The number of distinct names in the table.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int findSlot(CharSequence name, int hash) {
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && names[id].contentEquals(name)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        slots = new int[capacity * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int hashOf(CharSequence name) {
+        // INFO: Both cache a hash computed the same way as the loop below
+        if (name instanceof String || name instanceof Lexeme) {
+            return name.hashCode();
+        }
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        return hash;
+    }
+
+    // INFO: Spreads the high bits so similar names do not cluster
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
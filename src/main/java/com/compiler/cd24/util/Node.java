@@ -1,14 +1,19 @@
 package com.compiler.cd24.util;
 
+import com.compiler.cd24.lexer.Lexeme;
 import java.util.*;
 
 /**
  * Node class
  * 
  * Represents a node in the abstract syntax tree (AST).
- * Each node stores its type, value, a list of child nodes, and any associated
+ * Each node stores its kind, value, its child nodes, and any associated
  * errors.
  * Provides methods for constructing and traversing the AST.
+ *
+ * Most nodes are leaves or operators with two operands, so the first two
+ * children are held in fields and a list is only allocated for a node with
+ * more. Nodes without errors share one empty error list.
  * 
  * Date: 2024-10-08
  *
@@ -16,29 +21,50 @@ import java.util.*;
  * @version 1.1
  */
 public class Node {
-    private String type;
-    private String value;
+    private static final List<String> NO_ERRORS = Collections.emptyList();
+
+    private NodeKind kind;
+    // INFO: A String, or a Lexeme viewing the source until it is first read
+    private CharSequence value;
+    // INFO: NameTable id of an identifier value, or NameTable.NO_NAME
+    private int nameId;
+    // INFO: Parsed value of an NILIT, or the raw bits of an NFLIT's double
+    private long literalValue;
+    private Node first;
+    private Node second;
+    // INFO: Every child once there are more than two, otherwise null
     private List<Node> children;
     private List<String> errors;
     private int line;
     private int col;
 
-    public Node(String type, String value) {
-        this.type = type;
+    public Node(NodeKind kind, String value) {
+        this.kind = kind;
         this.value = value;
-        this.children = new ArrayList<>();
-        this.errors = new ArrayList<>();
+        this.nameId = NameTable.NO_NAME;
+        this.errors = NO_ERRORS;
         this.line = 0;
         this.col = 0;
     }
 
+    // INFO: A rule that built nothing returns null, which adds no child
     public void addChild(Node child) {
-        if (child.type.equals("SPECIAL")) {
-            for (Node grandChild : child.children) {
-                this.addChild(grandChild);
-            }
+        if (child == null) {
+            return;
+        }
+        if (children != null) {
+            children.add(child);
+        } else if (first == null) {
+            first = child;
+        } else if (second == null) {
+            second = child;
         } else {
+            children = new ArrayList<>(4);
+            children.add(first);
+            children.add(second);
             children.add(child);
+            first = null;
+            second = null;
         }
     }
 
@@ -52,10 +78,10 @@ public class Node {
 
     // INFO: Prints all nodes
     private void buildTreeString(Node node, List<String> lines, String prefix, String childrenPrefix) {
-        String content = node.type + (node.value.isEmpty() ? "" : " (" + node.value + ")");
+        String content = node.kind.name() + (node.getValue().isEmpty() ? "" : " (" + node.getValue() + ")");
         lines.add(prefix + content);
 
-        for (Iterator<Node> it = node.children.iterator(); it.hasNext();) {
+        for (Iterator<Node> it = node.getChildren().iterator(); it.hasNext();) {
             Node child = it.next();
             if (it.hasNext()) {
                 buildTreeString(child, lines,
@@ -101,23 +127,17 @@ public class Node {
     }
 
     private void preOrderTraversal(Node node, List<Node> output) {
-        if (node.type.equals("SPECIAL")) {
-            for (Node child : node.children) {
-                preOrderTraversal(child, output);
-            }
-        } else {
-            output.add(node);
-            for (Node child : node.children) {
-                preOrderTraversal(child, output);
-            }
+        output.add(node);
+        for (Node child : node.getChildren()) {
+            preOrderTraversal(child, output);
         }
     }
 
     private String formatNodeOutput(Node node) {
-        String typeContent = padString(node.type, 7);
+        String typeContent = padString(node.kind.name(), 7);
         String valueContent = "";
-        if (!node.value.isEmpty()) {
-            valueContent = padString(node.value, 7);
+        if (!node.getValue().isEmpty()) {
+            valueContent = padString(node.getValue(), 7);
         }
         return typeContent + valueContent;
     }
@@ -135,6 +155,9 @@ public class Node {
     }
 
     public void addError(String error) {
+        if (errors == NO_ERRORS) {
+            errors = new ArrayList<>(1);
+        }
         errors.add(error);
     }
 
@@ -144,23 +167,67 @@ public class Node {
 
     /* -------------- Getters -------------- */
     public String getType() {
-        return type;
+        return kind.name();
+    }
+
+    public NodeKind getKind() {
+        return kind;
     }
 
     public String getValue() {
-        return value;
+        if (!(value instanceof String)) {
+            value = value.toString();
+        }
+        return (String) value;
+    }
+
+    // INFO: The value without copying it out of the source, for Ast.of()
+    CharSequence getValueText() {
+        return value == null ? "" : value;
+    }
+
+    public int getNameId() {
+        return nameId;
+    }
+
+    public long getIntegerValue() {
+        return literalValue;
+    }
+
+    public double getFloatValue() {
+        return Double.longBitsToDouble(literalValue);
     }
 
     public List<Node> getChildren() {
-        return children;
+        if (children != null) {
+            return children;
+        }
+        if (first == null) {
+            return Collections.emptyList();
+        }
+        if (second == null) {
+            return List.of(first);
+        }
+        return List.of(first, second);
     }
 
-    public List<String> getErrors() {
-        return errors;
+    public int getChildCount() {
+        if (children != null) {
+            return children.size();
+        }
+        return first == null ? 0 : second == null ? 1 : 2;
+    }
+
+    public Node getChild(int index) {
+        if (children != null) {
+            return children.get(index);
+        }
+        Objects.checkIndex(index, getChildCount());
+        return index == 0 ? first : second;
     }
 
-    public boolean isSpecial() {
-        return this.type.equals("SPECIAL");
+    public List<String> getErrors() {
+        return errors;
     }
 
     public int getLine() {
@@ -177,16 +244,60 @@ public class Node {
     }
 
     /* -------------- Setters -------------- */
-    public void setType(String type) {
-        this.type = type;
+    public void setKind(NodeKind kind) {
+        this.kind = kind;
     }
 
     public void setValue(String value) {
         this.value = value;
+        this.nameId = NameTable.NO_NAME;
+    }
+
+    public void setValue(Lexeme value) {
+        this.value = value;
+        this.nameId = NameTable.NO_NAME;
+    }
+
+    /**
+     * Sets the value of the node to an integer literal.
+     *
+     * @param value  The literal as it appears in the source.
+     * @param parsed The value of the literal, parsed by the Scanner.
+     */
+    public void setValue(Lexeme value, long parsed) {
+        setValue(value);
+        this.literalValue = parsed;
+    }
+
+    /**
+     * Sets the value of the node to a float literal.
+     *
+     * @param value  The literal as it appears in the source.
+     * @param parsed The value of the literal, parsed by the Scanner.
+     */
+    public void setValue(Lexeme value, double parsed) {
+        setValue(value);
+        this.literalValue = Double.doubleToRawLongBits(parsed);
+    }
+
+    /**
+     * Sets the value of the node to an identifier.
+     *
+     * @param value  The identifier as it appears in the source.
+     * @param nameId The id of the identifier in the compilation's NameTable.
+     */
+    public void setName(Lexeme value, int nameId) {
+        this.value = value;
+        this.nameId = nameId;
     }
 
     public void setChildren(List<Node> children) {
-        this.children = children;
+        this.first = null;
+        this.second = null;
+        this.children = null;
+        for (Node child : children) {
+            addChild(child);
+        }
     }
 
     public void setLine(int line) {
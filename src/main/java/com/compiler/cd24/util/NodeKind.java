@@ -0,0 +1,109 @@
+package com.compiler.cd24.util;
+
+/**
+ * NodeKind enum
+ *
+ * The kinds of node in the abstract syntax tree. Each kind is named after the
+ * node type it replaces and carries the readable name used in syntax errors.
+ * Kinds without a readable name are reported by their own name.
+ *
+ * SPECIAL is only given to the node created for a syntax error in a rule that
+ * builds no node of its own, so the error is reported as undefined. The error
+ * then turns it into NUNDEF, so it never appears in a finished tree.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+public enum NodeKind {
+    NPROG("Program"),
+    NGLOB("Globals"),
+    NILIST("Initialization List"),
+    NINIT("Initialization"),
+    NTYPEL("Type List"),
+    NRTYPE("Record Type Definition"),
+    NATYPE("Array Type Definition"),
+    NFLIST("Field List"),
+    NALIST("Array Declaration List"),
+    NARRD("Array Declaration"),
+    NFUNCS("Functions"),
+    NFUND("Function Definition"),
+    NPLIST("Parameter List"),
+    NSIMP("Simple Parameter"),
+    NARRP("Array Parameter"),
+    NARRC("Constant Array Parameter"),
+    NDLIST("Declaration List"),
+    NMAIN("Main Body"),
+    NSDLST("Simple Declaration List"),
+    NSDECL("Simple Declaration"),
+    NTDECL("Type Declaration"),
+    NSTATS("Statements"),
+    NFOR,
+    NREPT("Repeat Statement"),
+    NDOWL("Do While Loop"),
+    NASGNS("Assignment List"),
+    NIFTH("If Then Statement"),
+    NIFTE("If Then Else Statement"),
+    NIFEF("If Else If Statement"),
+    NSWTCH("Switch Statement"),
+    NCASLT("Case List"),
+    NASGN("Assignment Operator '='"),
+    NPLEQ("Plus Equals Operator '+='"),
+    NMNEQ("Minus Equals Operator '-='"),
+    NSTEQ,
+    NDVEQ("Divide Equals Operator '/='"),
+    NINPUT("Input Statement"),
+    NPRINT("Print Statement"),
+    NPRLN("Print Line Statement"),
+    NCALL("Function Call"),
+    NRETN("Return Statement"),
+    NVLIST("Variable List"),
+    NSIMV("Simple Variable"),
+    NAELT("Array Element"),
+    NARRV("Record Element"),
+    NEXPL("Expression List"),
+    NBOOL("Boolean Expression"),
+    NAND("Logical AND Operator"),
+    NOR("Logical OR Operator"),
+    NXOR("Logical XOR Operator"),
+    NEQL("Equality Operator '=='"),
+    NNEQ("Not Equal Operator '!='"),
+    NGRT("Greater Than Operator '>'"),
+    NLSS("Less Than Operator '<'"),
+    NLEQ("Less Than or Equal Operator '<='"),
+    NGEQ("Greater Than or Equal Operator '>='"),
+    NADD("Addition"),
+    NSUB("Subtraction"),
+    NMUL("Multiplication"),
+    NDIV("Division"),
+    NMOD("Modulus"),
+    NPOW("Power Operator"),
+    NILIT("Integer Literal"),
+    NFLIT("Floating Point Literal"),
+    NTRUE("Boolean True"),
+    NFALS("Boolean False"),
+    NFCALL("Function Call"),
+    NPRLST("Print List"),
+    NSTRG("String Literal"),
+    NUNDEF,
+    SPECIAL;
+
+    private final String readableName;
+
+    NodeKind() {
+        this.readableName = name();
+    }
+
+    NodeKind(String readableName) {
+        this.readableName = readableName;
+    }
+
+    /**
+     * @return The name of the non-terminal the kind stands for, as printed in
+     *         syntax errors.
+     */
+    public String getReadableName() {
+        return readableName;
+    }
+}
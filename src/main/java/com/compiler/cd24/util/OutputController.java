@@ -1,5 +1,6 @@
 package com.compiler.cd24.util;
 
+import com.compiler.cd24.lexer.SourceBuffer;
 import com.compiler.cd24.lexer.Token;
 import com.compiler.cd24.lexer.Tokeniser;
 import java.io.File;
@@ -16,6 +17,10 @@ import java.util.List;
  * This class is responsible for managing the output of tokens and errors during
  * the lexical analysis phase. It handles formatting, line management, and
  * writing to an output file.
+ *
+ * The listing echoes the source as far as the Scanner has read it. Rather than
+ * being handed each character, it is written from the source in bulk whenever
+ * an error is added to it and when the output is closed.
  * 
  * Date: 27-09-2024
  *
@@ -31,6 +36,10 @@ public class OutputController {
     private boolean isFirstOutput = true;
     private int currentCol = 4;
     private String outputFileName;
+    private SourceBuffer listingSource;
+    private int listedTo;
+    private int readTo;
+    private int listingColumn;
 
     public OutputController() {
     }
@@ -43,151 +52,6 @@ public class OutputController {
         initialiseWriter(outputFileName);
     }
 
-    private String getReadableNonTerminal(String nodeType) {
-        switch (nodeType) {
-            case "NPROG":
-                return "Program";
-            case "NGLOB":
-                return "Globals";
-            case "NILIST":
-                return "Initialization List";
-            case "NINIT":
-                return "Initialization";
-            case "NTYPEL":
-                return "Type List";
-            case "NRTYPE":
-                return "Record Type Definition";
-            case "NATYPE":
-                return "Array Type Definition";
-            case "NFLIST":
-                return "Field List";
-            case "NALIST":
-                return "Array Declaration List";
-            case "NARRD":
-                return "Array Declaration";
-            case "NFUNCS":
-                return "Functions";
-            case "NFUND":
-                return "Function Definition";
-            case "NPLIST":
-                return "Parameter List";
-            case "NSIMP":
-                return "Simple Parameter";
-            case "NARRP":
-                return "Array Parameter";
-            case "NARRC":
-                return "Constant Array Parameter";
-            case "NDLIST":
-                return "Declaration List";
-            case "NMAIN":
-                return "Main Body";
-            case "NSDLST":
-                return "Simple Declaration List";
-            case "NSDECL":
-                return "Simple Declaration";
-            case "NTDECL":
-                return "Type Declaration";
-            case "NSTATS":
-                return "Statements";
-            case "NFORL":
-                return "For Loop";
-            case "NREPT":
-                return "Repeat Statement";
-            case "NDOWL":
-                return "Do While Loop";
-            case "NASGNS":
-                return "Assignment List";
-            case "NIFTH":
-                return "If Then Statement";
-            case "NIFTE":
-                return "If Then Else Statement";
-            case "NIFEF":
-                return "If Else If Statement";
-            case "NSWTCH":
-                return "Switch Statement";
-            case "NCASLT":
-                return "Case List";
-            case "NASGN":
-                return "Assignment Operator '='";
-            case "NPLEQ":
-                return "Plus Equals Operator '+='";
-            case "NMNEQ":
-                return "Minus Equals Operator '-='";
-            case "NSTEA":
-                return "Times Equals Operator '*='";
-            case "NDVEQ":
-                return "Divide Equals Operator '/='";
-            case "NINPUT":
-                return "Input Statement";
-            case "NPRINT":
-                return "Print Statement";
-            case "NPRLN":
-                return "Print Line Statement";
-            case "NCALL":
-                return "Function Call";
-            case "NRETN":
-                return "Return Statement";
-            case "NVLIST":
-                return "Variable List";
-            case "NSIMV":
-                return "Simple Variable";
-            case "NAELT":
-                return "Array Element";
-            case "NARRV":
-                return "Record Element";
-            case "NEXPL":
-                return "Expression List";
-            case "NBOOL":
-                return "Boolean Expression";
-            case "NAND":
-                return "Logical AND Operator";
-            case "NOR":
-                return "Logical OR Operator";
-            case "NXOR":
-                return "Logical XOR Operator";
-            case "NEQL":
-                return "Equality Operator '=='";
-            case "NNEQ":
-                return "Not Equal Operator '!='";
-            case "NGRT":
-                return "Greater Than Operator '>'";
-            case "NLSS":
-                return "Less Than Operator '<'";
-            case "NLEQ":
-                return "Less Than or Equal Operator '<='";
-            case "NGEQ":
-                return "Greater Than or Equal Operator '>='";
-            case "NADD":
-                return "Addition";
-            case "NSUB":
-                return "Subtraction";
-            case "NMUL":
-                return "Multiplication";
-            case "NDIV":
-                return "Division";
-            case "NMOD":
-                return "Modulus";
-            case "NPOW":
-                return "Power Operator";
-            case "NILIT":
-                return "Integer Literal";
-            case "NFLIT":
-                return "Floating Point Literal";
-            case "NTRUE":
-                return "Boolean True";
-            case "NFALS":
-                return "Boolean False";
-            case "NFCALL":
-                return "Function Call";
-            case "NPRLST":
-                return "Print List";
-            case "NSTRG":
-                return "String Literal";
-            default:
-                return nodeType;
-        }
-    }
-
     private String sanitizeLexeme(String lexeme) {
         return lexeme.replace("\n", "").replace("\r", "");
     }
@@ -209,13 +73,13 @@ public class OutputController {
     }
 
     public void addParseError(String errorDescription, Token currentToken, Node parentNode) {
-        String nonTerminal = (parentNode != null) ? getReadableNonTerminal(parentNode.getType()) : "Unknown";
+        String nonTerminal = (parentNode != null) ? parentNode.getKind().getReadableName() : "Unknown";
         int line = currentToken.getLine();
         int col = currentToken.getCol();
 
         String errorMsg = String.format("Syntax Error – improperly formed %s on (line %d, column %d)\n",
                 nonTerminal, line, col);
-        if (nonTerminal.equals("SPECIAL")) {
+        if (parentNode != null && parentNode.getKind() == NodeKind.SPECIAL) {
             errorMsg = String.format("syntax error – Undefined Error on (line %d, column %d)\n",
                     line, col);
 
@@ -309,42 +173,63 @@ public class OutputController {
     }
 
     /**
-     * Outputs a character to the listing file at a specific column.
+     * Sets the source the listing echoes.
      * 
-     * @param c         The character to output.
-     * @param targetCol The target column for the character.
+     * @param source The source being scanned.
+     */
+    public void setListingSource(SourceBuffer source) {
+        this.listingSource = source;
+    }
+
+    /**
+     * Records how far the Scanner has read. The characters are written to the
+     * listing before the next error, or when the output is closed.
+     * 
+     * @param end The source index one past the last character read.
+     */
+    public void advanceListing(int end) {
+        readTo = end;
+    }
+
+    /**
+     * Writes the characters read since the last call to the listing file, each
+     * at its column.
      */
-    public void outputToListing(char c, int targetCol) {
+    private void flushListing() {
+        if (listingSource == null || listedTo >= readTo) {
+            return;
+        }
         if (writer == null) {
             System.err.println("Writer is not initialised. Cannot output to listing.");
             return;
         }
-        targetCol += 4;
-        if (isValidChar(c)) {
+        StringBuilder text = new StringBuilder(readTo - listedTo + 16);
+        for (int i = listedTo; i < readTo; i++) {
+            char c = (char) listingSource.charAt(i);
+            listingColumn = c == '\n' ? 0 : listingColumn + 1;
+            int targetCol = listingColumn + 4;
             if (isFirstOutput) {
-                String lineNumberStr = String.format("%4d ", lineNumber);
-                writer.print(lineNumberStr);
+                text.append(String.format("%4d ", lineNumber));
                 isFirstOutput = false;
             }
 
             if (currentCol < targetCol) {
-                int spacesToAdd = targetCol - currentCol;
-                writer.print(" ".repeat(spacesToAdd));
+                text.append(" ".repeat(targetCol - currentCol));
                 currentCol = targetCol;
             }
 
-            writer.print(c);
+            text.append(c);
             currentCol++;
 
             if (c == '\n') {
                 lineNumber++;
-                String lineNumberStr = String.format("%4d ", lineNumber);
-                writer.print(lineNumberStr);
+                text.append(String.format("%4d ", lineNumber));
                 currentCol = 5;
             }
-
-            writer.flush();
         }
+        listedTo = readTo;
+        writer.print(text);
+        writer.flush();
     }
 
     /**
@@ -358,27 +243,19 @@ public class OutputController {
             System.err.println("Writer is not initialised. Cannot output to listing.");
             return;
         }
+        flushListing();
         writer.print("\n");
         writer.print(error);
         writer.flush();
         currentCol = 0;
     }
 
-    /**
-     * Checks if a character is valid for output.
-     * 
-     * @param c The character to check.
-     * @return true if the character is valid, false otherwise.
-     */
-    private boolean isValidChar(char c) {
-        return c != '\uFFFF';
-    }
-
     /**
      * Closes the output writer.
      */
     public void closeOutput() {
         if (writer != null) {
+            flushListing();
             writer.close();
         }
     }
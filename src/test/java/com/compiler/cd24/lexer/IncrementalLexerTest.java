@@ -0,0 +1,158 @@
+package com.compiler.cd24.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * IncrementalLexerTest class
+ *
+ * Checks that IncrementalLexer.relex() gives the same tokens as scanning the
+ * edited source from the start, for edits that open, close or land inside
+ * comments and strings, that join or split operators, and at either end of
+ * the source, as well as for random edits to the test files.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+class IncrementalLexerTest {
+    private static final String PROGRAM = "CD24 P /-- line comment\n"
+            + "main x: int, y: float begin\n"
+            + "  /** block\n  comment **/ x = 1; y = 2.5;\n"
+            + "  if (x <= 10 and x != 3) printline \"a string\", x; end\n"
+            + "  x += 1; x /= 2; y = y ** 2;\n"
+            + "end CD24 P\n";
+    private static final String[] INSERTS = {
+            "", " ", "\n", "x", "1", "1.", ".5", "=", "<", "!", "/", "-", "*", "\"", "/--", "/**", "**/", "\"\n",
+            "begin ", "end ", "é" };
+
+    @Test
+    void matchesScannerForEditsInComments() {
+        int line = PROGRAM.indexOf("line comment");
+        int block = PROGRAM.indexOf("block");
+        int close = PROGRAM.indexOf("**/");
+        assertRelexes(PROGRAM, line, 0, "more ");
+        assertRelexes(PROGRAM, line + 4, 1, "\n");
+        assertRelexes(PROGRAM, block, 5, "text **/ x = 2; /**");
+        assertRelexes(PROGRAM, close, 3, "");
+        assertRelexes(PROGRAM, close, 0, "**/");
+        assertRelexes(PROGRAM, PROGRAM.indexOf("main"), 0, "/** ");
+        assertRelexes(PROGRAM, PROGRAM.indexOf("x = 1"), 0, "/--");
+        assertRelexes(PROGRAM, PROGRAM.indexOf("/--") + 1, 1, "");
+    }
+
+    @Test
+    void matchesScannerForEditsInStrings() {
+        int string = PROGRAM.indexOf("\"a string\"");
+        assertRelexes(PROGRAM, string + 3, 0, "longer ");
+        assertRelexes(PROGRAM, string + 3, 0, "\"");
+        assertRelexes(PROGRAM, string + 9, 1, "");
+        assertRelexes(PROGRAM, string, 1, "");
+        assertRelexes(PROGRAM, PROGRAM.indexOf("x = 1"), 0, "\"");
+        assertRelexes(PROGRAM, string + 2, 0, "\n");
+    }
+
+    @Test
+    void matchesScannerForEditsSplittingOperators() {
+        int lessEqual = PROGRAM.indexOf("<=");
+        int notEqual = PROGRAM.indexOf("!=");
+        int power = PROGRAM.indexOf("**");
+        assertRelexes(PROGRAM, lessEqual + 1, 1, "");
+        assertRelexes(PROGRAM, lessEqual + 1, 0, " ");
+        assertRelexes(PROGRAM, notEqual + 1, 0, "=");
+        assertRelexes(PROGRAM, notEqual, 1, "");
+        assertRelexes(PROGRAM, power + 1, 0, "/");
+        assertRelexes(PROGRAM, PROGRAM.indexOf("+="), 1, "");
+        assertRelexes(PROGRAM, PROGRAM.indexOf("/="), 0, "-");
+        assertRelexes(PROGRAM, PROGRAM.indexOf("2.5") + 1, 1, "");
+        assertRelexes(PROGRAM, PROGRAM.indexOf("10"), 0, "1.");
+        assertRelexes(PROGRAM, PROGRAM.indexOf("x <="), 1, "total");
+        // INFO: The 1 and . before the edit become one float with the 5 it inserts
+        String dot = "CD24 P main x: int begin x = 1.y; end CD24 P";
+        assertRelexes(dot, dot.indexOf(".y") + 1, 1, "5");
+        assertRelexes(dot, dot.indexOf(".y") + 1, 0, "25");
+    }
+
+    @Test
+    void matchesScannerForEditsAtStartAndEnd() {
+        int end = PROGRAM.length();
+        assertRelexes(PROGRAM, 0, 0, "/-- first\n");
+        assertRelexes(PROGRAM, 0, 4, "");
+        assertRelexes(PROGRAM, 0, 2, "CD");
+        assertRelexes(PROGRAM, 0, end, "");
+        assertRelexes(PROGRAM, end, 0, "x");
+        assertRelexes(PROGRAM, end, 0, "/** never closed");
+        assertRelexes(PROGRAM, end - 2, 2, "");
+        assertRelexes("", 0, 0, "CD24 P");
+    }
+
+    @Test
+    void matchesScannerForRandomEdits() throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(Path.of("src/test/resources"))) {
+            files = paths.filter(path -> path.toString().endsWith(".cd")).sorted().collect(Collectors.toList());
+        }
+        Random random = new Random(8);
+        for (Path file : files) {
+            byte[] text = Files.readAllBytes(file);
+            TokenBuffer tokens = scan(text);
+            // INFO: Apply each edit to the result of the last, as an editor would
+            for (int i = 0; i < 40; i++) {
+                int offset = random.nextInt(text.length + 1);
+                int removed = random.nextInt(Math.min(8, text.length - offset) + 1);
+                String inserted = INSERTS[random.nextInt(INSERTS.length)];
+                byte[] edited = edit(text, offset, removed, inserted);
+                TokenBuffer relexed = IncrementalLexer.relex(tokens, offset, removed, inserted);
+                assertSameTokens(scan(edited), relexed, file + ", edit " + i);
+                text = edited;
+                tokens = relexed;
+            }
+        }
+    }
+
+    private static void assertRelexes(String text, int offset, int removed, String inserted) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        TokenBuffer relexed = IncrementalLexer.relex(scan(bytes), offset, removed, inserted);
+        String name = "replacing " + removed + " characters at " + offset + " with \"" + inserted + "\"";
+        assertSameTokens(scan(edit(bytes, offset, removed, inserted)), relexed, name);
+    }
+
+    private static TokenBuffer scan(byte[] text) {
+        return new Scanner(SourceBuffer.fromByteBuffer(ByteBuffer.wrap(text)), null).tokenise();
+    }
+
+    private static byte[] edit(byte[] text, int offset, int removed, String inserted) {
+        byte[] bytes = inserted.getBytes(StandardCharsets.UTF_8);
+        byte[] edited = new byte[text.length - removed + bytes.length];
+        System.arraycopy(text, 0, edited, 0, offset);
+        System.arraycopy(bytes, 0, edited, offset, bytes.length);
+        System.arraycopy(text, offset + removed, edited, offset + bytes.length, text.length - offset - removed);
+        return edited;
+    }
+
+    private static void assertSameTokens(TokenBuffer expected, TokenBuffer actual, String name) {
+        assertEquals(expected.size(), actual.size(), name);
+        for (int i = 0; i < expected.size(); i++) {
+            String token = name + ", token " + i;
+            assertEquals(expected.kind(i), actual.kind(i), token);
+            assertEquals(expected.start(i), actual.start(i), token);
+            assertEquals(expected.length(i), actual.length(i), token);
+            assertEquals(expected.integerValue(i), actual.integerValue(i), token);
+            assertEquals(expected.hasMessage(i), actual.hasMessage(i), token);
+            assertEquals(expected.lexeme(i), actual.lexeme(i), token);
+            assertEquals(expected.line(i), actual.line(i), token);
+            assertEquals(expected.col(i), actual.col(i), token);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.compiler.cd24.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ParallelLexerTest class
+ *
+ * Checks that ParallelLexer gives the same tokens as a single Scanner. The
+ * sources are split into chunks far smaller than the lexer would choose, so
+ * the stitching runs on every seam, including seams inside block comments,
+ * line comments and unterminated strings.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+class ParallelLexerTest {
+    private static final int[] CHUNK_SIZES = { 8, 64, 512 };
+    private static final String[] FRAGMENTS = {
+            "CD24 ", "main ", "begin ", "end ", "func ", "x ", "total1 ", "42 ", "3.14 ", "= ", "+= ", "<= ",
+            "; ", ", ", "( ", ") ", "[ ", "] ", ". ", "\"a string\" ", "\"unterminated\n", "/-- a line comment\n",
+            "/** a block\ncomment over\nseveral lines **/ ", "/**\n*\n**\n* / **/ ", "** ", "/ ", "/- ", "!= ",
+            "! ", "@# ", "é ", "\t", "\n", "\n\n", "x/**/y " };
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void matchesScannerOnTestFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(Path.of("src/test/resources"))) {
+            files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            SourceBuffer source = SourceBuffer.fromFile(file.toString());
+            for (int chunkSize : CHUNK_SIZES) {
+                assertSameTokens(source, chunkSize, file.toString());
+            }
+        }
+    }
+
+    @Test
+    void matchesScannerAcrossChunkSeams() {
+        Random random = new Random(24);
+        for (int i = 0; i < 30; i++) {
+            StringBuilder text = new StringBuilder();
+            while (text.length() < 20_000) {
+                text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            // INFO: Leave a comment or string open at EOF in some of the sources
+            switch (i % 4) {
+                case 1:
+                    text.append("/** never closed\n").append(text, 0, 2_000);
+                    break;
+                case 2:
+                    text.append("\"never closed");
+                    break;
+                case 3:
+                    text.append("/-- no line feed");
+                    break;
+                default:
+                    break;
+            }
+            SourceBuffer source = SourceBuffer.fromText(text);
+            for (int chunkSize : CHUNK_SIZES) {
+                assertSameTokens(source, chunkSize, "generated source " + i);
+            }
+        }
+    }
+
+    private static void assertSameTokens(SourceBuffer source, int chunkSize, String name) {
+        TokenBuffer expected = new Scanner(source, null).tokenise();
+        TokenBuffer actual = ParallelLexer.tokenise(source, pool, chunkSize);
+        String label = name + " in chunks of " + chunkSize;
+        assertEquals(expected.size(), actual.size(), label);
+        for (int i = 0; i < expected.size(); i++) {
+            String token = label + ", token " + i;
+            assertEquals(expected.kind(i), actual.kind(i), token);
+            assertEquals(expected.start(i), actual.start(i), token);
+            assertEquals(expected.length(i), actual.length(i), token);
+            assertEquals(expected.integerValue(i), actual.integerValue(i), token);
+            assertEquals(expected.hasMessage(i), actual.hasMessage(i), token);
+            assertEquals(expected.lexeme(i), actual.lexeme(i), token);
+        }
+    }
+}
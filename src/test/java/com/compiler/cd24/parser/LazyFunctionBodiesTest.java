@@ -0,0 +1,118 @@
+package com.compiler.cd24.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.compiler.cd24.lexer.Scanner;
+import com.compiler.cd24.lexer.SourceBuffer;
+import com.compiler.cd24.util.Ast;
+import com.compiler.cd24.util.AstCursor;
+import com.compiler.cd24.util.Node;
+import com.compiler.cd24.util.OutputController;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * LazyFunctionBodiesTest class
+ *
+ * Checks that a parse with lazy function bodies, once forceBodies() has been
+ * called, gives the same tree, symbol table and errors as parsing the bodies
+ * in place. Errors in a lazy body are reported after the rest of the program,
+ * so the errors are compared without their order, and names in a body are
+ * given later ids, so nodes are compared by name.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+class LazyFunctionBodiesTest {
+    private static final String BODY_ERRORS = "CD24 P\n"
+            + "func f(a: int): int\n"
+            + "begin\n"
+            + "  if (a < 1) a = 1; end\n"
+            + "  return a\n"
+            + "end\n"
+            + "func g(): void\n"
+            + "begin\n"
+            + "  printline 1 2;\n"
+            + "end\n"
+            + "main x: int begin x = 1 * ; printline x; end CD24 P\n";
+
+    @TempDir
+    static Path listings;
+
+    @Test
+    void matchesEagerParseOnTestFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(Path.of("src/test/resources"))) {
+            files = paths.filter(path -> path.toString().endsWith(".cd")).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            SourceBuffer source = SourceBuffer.fromFile(file.toString());
+            assertEquals(parse(source, false), parse(source, true), file.toString());
+        }
+    }
+
+    @Test
+    void reportsBodyErrorsOnceForced() {
+        SourceBuffer source = SourceBuffer.fromText(BODY_ERRORS);
+        String eager = parse(source, false);
+        assertTrue(eager.contains("Syntax Error"), eager);
+        assertEquals(eager, parse(source, true));
+    }
+
+    @Test
+    void reportsBodyErrorsBeforeTreeIsRead() throws ParseException {
+        OutputController output = new OutputController(listings.resolve("out.lst").toString());
+        Parser parser = new Parser(new Scanner(SourceBuffer.fromText(BODY_ERRORS), null).tokenise(), output);
+        parser.setLazyFunctionBodies(true);
+        parser.parse();
+        int mainErrors = output.getFormattedOutput().size();
+        parser.forceBodies();
+        assertTrue(output.getFormattedOutput().size() > mainErrors);
+    }
+
+    /**
+     * @return Everything the parse produced, as text, with the errors sorted.
+     */
+    private static String parse(SourceBuffer source, boolean lazy) {
+        OutputController output = new OutputController(listings.resolve("out.lst").toString());
+        Parser parser = new Parser(new Scanner(source, null).tokenise(), output);
+        parser.setLazyFunctionBodies(lazy);
+        StringBuilder result = new StringBuilder();
+        try {
+            Node root = parser.parse();
+            parser.forceBodies();
+            // INFO: The errors must be known before the tree is read
+            List<String> errors = new ArrayList<>(output.getFormattedOutput());
+            Collections.sort(errors);
+            if (root != null) {
+                Ast ast = Ast.of(root);
+                AstCursor cursor = new AstCursor(ast);
+                do {
+                    int node = cursor.node();
+                    result.append(cursor.depth()).append(' ').append(ast.type(node)).append(' ')
+                            .append(ast.value(node)).append(' ').append(ast.line(node)).append(':')
+                            .append(ast.col(node)).append(' ').append(ast.integerValue(node)).append('\n');
+                } while (cursor.next(true));
+            }
+            assertEquals(errors.size(), output.getFormattedOutput().size(), "errors reported while reading the tree");
+            result.append(parser.getSymbolTable()).append('\n');
+            for (String line : errors) {
+                result.append(line);
+            }
+        } catch (ParseException | RuntimeException e) {
+            result.append(e).append('\n');
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,237 @@
+package com.compiler.cd24.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.compiler.cd24.lexer.Scanner;
+import com.compiler.cd24.lexer.SourceBuffer;
+import com.compiler.cd24.lexer.TokenBuffer;
+import com.compiler.cd24.util.Ast;
+import com.compiler.cd24.util.AstCursor;
+import com.compiler.cd24.util.Node;
+import com.compiler.cd24.util.OutputController;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ParallelFunctionParserTest class
+ *
+ * Checks that parsing the functions on a ForkJoinPool gives the same tree,
+ * symbol table and errors as the sequential parse. Besides the test files, it
+ * parses generated programs with many functions, where some functions reuse
+ * the names of earlier ones as parameters, so that functions parsed ahead are
+ * both kept and parsed again. Some of the programs have syntax errors added.
+ *
+ * The generated statements avoid calls, returns, repeats and statements that
+ * start with a parameter, which the Parser cannot yet get past, so most
+ * programs are parsed to the end.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+class ParallelFunctionParserTest {
+    private static final String[] RELATIONS = { "<", ">", "==", "!=", "<=", ">=" };
+    private static final String[] ASSIGNMENTS = { "=", "+=", "-=", "*=", "/=" };
+    private static final String[] TYPES = { "int", "float", "bool" };
+    // INFO: Syntax errors the Parser recovers from, as text to find and its replacement
+    private static final String[][] EDITS = {
+            { "+ ", "+ + " }, { "func ", "fun " }, { ": ", " " }, { "end ", "end end " } };
+
+    private static ForkJoinPool pool;
+
+    @TempDir
+    static Path listings;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void matchesSequentialParseOnTestFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(Path.of("src/test/resources"))) {
+            files = paths.filter(path -> path.toString().endsWith(".cd")).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            SourceBuffer source = SourceBuffer.fromFile(file.toString());
+            assertEquals(parse(source, null), parse(source, pool), file.toString());
+        }
+    }
+
+    @Test
+    void matchesSequentialParseOnGeneratedPrograms() {
+        for (int seed = 0; seed < 90; seed++) {
+            String text = program(seed, 40);
+            if (seed % 3 != 0) {
+                text = mutate(text, seed, 1 + seed % 4);
+            }
+            SourceBuffer source = SourceBuffer.fromText(text);
+            assertEquals(parse(source, null), parse(source, pool), "generated program " + seed);
+        }
+    }
+
+    @Test
+    void matchesSequentialParseOnManyFunctions() {
+        SourceBuffer source = SourceBuffer.fromText(program(7000, 2000));
+        assertEquals(parse(source, null), parse(source, pool), "generated program 7000");
+    }
+
+    /**
+     * @return Everything the parse produced, as text.
+     */
+    private static String parse(SourceBuffer source, ForkJoinPool functionPool) {
+        TokenBuffer tokens = new Scanner(source, null).tokenise();
+        OutputController output = new OutputController(listings.resolve("out.lst").toString());
+        Parser parser = new Parser(tokens, output);
+        parser.setFunctionPool(functionPool);
+        StringBuilder result = new StringBuilder();
+        try {
+            Node root = parser.parse();
+            Ast ast = Ast.of(root);
+            AstCursor cursor = new AstCursor(ast);
+            do {
+                int node = cursor.node();
+                result.append(cursor.depth()).append(' ').append(ast.type(node)).append(' ')
+                        .append(ast.value(node)).append(' ').append(ast.nameId(node)).append(' ')
+                        .append(ast.line(node)).append(':').append(ast.col(node)).append(' ')
+                        .append(ast.integerValue(node)).append('\n');
+            } while (cursor.next(true));
+        } catch (ParseException | RuntimeException e) {
+            result.append(e).append('\n');
+        }
+        result.append(parser.getSymbolTable()).append('\n');
+        for (String line : output.getFormattedOutput()) {
+            result.append(line);
+        }
+        return result.toString();
+    }
+
+    private static String program(int seed, int functions) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder("CD24 P").append(seed).append('\n');
+        for (int i = 0; i < functions; i++) {
+            List<String> variables = new ArrayList<>();
+            int parameters = random.nextInt(4);
+            for (int j = 0; j < parameters; j++) {
+                variables.add("p" + i + "a" + j);
+            }
+            // INFO: Reuse an earlier function's name, so later functions depend on it
+            if (i > 0 && random.nextInt(10) == 0) {
+                variables.add("f" + random.nextInt(i));
+            }
+            text.append("func f").append(i).append('(');
+            for (int j = 0; j < variables.size(); j++) {
+                text.append(j == 0 ? "" : ", ").append(variables.get(j)).append(": ")
+                        .append(TYPES[random.nextInt(TYPES.length)]);
+            }
+            text.append("): ").append(random.nextBoolean() ? "int" : "void").append("\nbegin\n  ");
+            variables.add("x");
+            statements(random, text, variables, 0);
+            text.append("\nend\n");
+        }
+        text.append("main x: int begin ");
+        statements(random, text, List.of("x"), 0);
+        return text.append(" end CD24 P").append(seed).append('\n').toString();
+    }
+
+    /**
+     * Appends one to four statements, which read the variables and assign to x.
+     */
+    private static void statements(Random random, StringBuilder text, List<String> variables, int depth) {
+        int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            int choice = random.nextInt(100);
+            if (depth < 3 && choice < 12) {
+                text.append("for (x = 0; ");
+                condition(random, text, variables);
+                text.append(") ");
+                statements(random, text, variables, depth + 1);
+                text.append(" end ");
+            } else if (depth < 3 && choice < 22) {
+                text.append("if (");
+                condition(random, text, variables);
+                text.append(") ");
+                statements(random, text, variables, depth + 1);
+                if (random.nextBoolean()) {
+                    text.append(" else ");
+                    statements(random, text, variables, depth + 1);
+                }
+                text.append(" end ");
+            } else if (depth < 3 && choice < 28) {
+                text.append("do ");
+                statements(random, text, variables, depth + 1);
+                text.append(" while (");
+                condition(random, text, variables);
+                text.append(") end ");
+            } else if (depth < 3 && choice < 33) {
+                text.append("switch (");
+                expression(random, text, variables, 0);
+                text.append(") begin case 1: ");
+                statements(random, text, variables, depth + 1);
+                text.append(" break; default: ");
+                statements(random, text, variables, depth + 1);
+                text.append(" end ");
+            } else if (choice < 65) {
+                text.append("printline ");
+                expression(random, text, variables, 0);
+                text.append("; ");
+            } else {
+                text.append("x ")
+                        .append(ASSIGNMENTS[random.nextInt(ASSIGNMENTS.length)]).append(' ');
+                expression(random, text, variables, 0);
+                text.append("; ");
+            }
+        }
+    }
+
+    private static void condition(Random random, StringBuilder text, List<String> variables) {
+        expression(random, text, variables, 0);
+        text.append(' ').append(RELATIONS[random.nextInt(RELATIONS.length)]).append(' ');
+        expression(random, text, variables, 0);
+    }
+
+    private static void expression(Random random, StringBuilder text, List<String> variables, int depth) {
+        if (depth > 0 || random.nextInt(10) < 4) {
+            int choice = random.nextInt(variables.size() + 1);
+            text.append(choice < variables.size() ? variables.get(choice) : String.valueOf(random.nextInt(100)));
+            return;
+        }
+        expression(random, text, variables, depth + 1);
+        text.append(' ').append("+-*/%".charAt(random.nextInt(5))).append(' ');
+        expression(random, text, variables, depth + 1);
+    }
+
+    /**
+     * Makes edits from EDITS at random places in a program.
+     */
+    private static String mutate(String text, int seed, int edits) {
+        Random random = new Random(seed);
+        StringBuilder mutated = new StringBuilder(text);
+        for (int i = 0; i < edits; i++) {
+            String[] edit = EDITS[random.nextInt(EDITS.length)];
+            int at = mutated.indexOf(edit[0], random.nextInt(mutated.length()));
+            if (at >= 0) {
+                mutated.replace(at, at + edit[0].length(), edit[1]);
+            }
+        }
+        return mutated.toString();
+    }
+}
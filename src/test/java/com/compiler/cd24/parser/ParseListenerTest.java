@@ -0,0 +1,179 @@
+package com.compiler.cd24.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.compiler.cd24.lexer.Scanner;
+import com.compiler.cd24.lexer.SourceBuffer;
+import com.compiler.cd24.lexer.TokenCursor;
+import com.compiler.cd24.util.Node;
+import com.compiler.cd24.util.OutputController;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ParseListenerTest class
+ *
+ * Checks that a ParseListener is given the same nodes, in the same order, as a
+ * pre-order walk of the tree parse() builds for the program, that each error
+ * comes straight after the node it was found under is entered, and that a
+ * Parser reading from a Scanner holds only the current token.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+class ParseListenerTest {
+    private static final String PROGRAM = "CD24 P\n"
+            + "constants limit = 10\n"
+            + "func twice(a: int): int\n"
+            + "begin\n"
+            + "  return a * 2;\n"
+            + "end\n"
+            + "main x: int, y: float begin\n"
+            + "  x = limit * 3 + 1;\n"
+            + "  y = 2.5;\n"
+            + "  if (x < limit) printline x; end\n"
+            + "  printline y;\n"
+            + "end CD24 P\n";
+    private static final String ERRORS = "CD24 P\n"
+            + "main x: int begin\n"
+            + "  x = 1;\n"
+            + "  printline x x;\n"
+            + "  x = 2;\n"
+            + "end CD24 P\n";
+
+    @TempDir
+    static Path listings;
+
+    @Test
+    void reportsTheTreeParseBuilds() throws ParseException {
+        assertEquals(walk(PROGRAM), listen(PROGRAM, null));
+    }
+
+    @Test
+    void reportsErrorsInsideTheirPart() throws ParseException {
+        List<String> events = listen(ERRORS, null);
+        List<String> nodes = new ArrayList<>();
+        int errors = 0;
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).startsWith("error ")) {
+                String before = events.get(i - 1);
+                assertTrue(before.startsWith("enter ") || before.startsWith("error "), before);
+                errors++;
+            } else {
+                nodes.add(events.get(i));
+            }
+        }
+        assertEquals(walk(ERRORS), nodes);
+        OutputController output = new OutputController(listings.resolve("out.lst").toString());
+        new Parser(new Scanner(SourceBuffer.fromText(ERRORS), null).tokenise(), output).parse();
+        assertTrue(errors > 0);
+        assertEquals(output.getFormattedOutput().size(), errors);
+    }
+
+    @Test
+    void holdsOnlyTheCurrentTokenWhileStreaming() throws ParseException {
+        StringBuilder text = new StringBuilder("CD24 P main x: int begin ");
+        for (int i = 0; i < 5000; i++) {
+            text.append("x = x + ").append(i).append("; ");
+        }
+        text.append("printline x; end CD24 P");
+        String program = text.toString();
+        TokenCursor cursor = new TokenCursor(new Scanner(SourceBuffer.fromText(program), null));
+        int[] mostHeld = { 0 };
+        List<String> events = listen(program, new ListenerCursor(cursor, mostHeld));
+        assertEquals(1, mostHeld[0]);
+        assertEquals(walk(program), events);
+    }
+
+    /**
+     * @return The nodes of the tree parse() builds, as enter and exit events.
+     */
+    private static List<String> walk(String program) throws ParseException {
+        OutputController output = new OutputController(listings.resolve("out.lst").toString());
+        Node root = new Parser(new Scanner(SourceBuffer.fromText(program), null).tokenise(), output).parse();
+        List<String> events = new ArrayList<>();
+        walk(root, events);
+        return events;
+    }
+
+    /**
+     * Walks the tree with an explicit stack, as the statement chain of a long
+     * main body is deeper than the call stack allows.
+     */
+    private static void walk(Node root, List<String> events) {
+        Deque<Node> open = new ArrayDeque<>();
+        Deque<Iterator<Node>> children = new ArrayDeque<>();
+        if (root != null) {
+            events.add("enter " + root.getKind() + " " + root.getValue());
+            open.push(root);
+            children.push(root.getChildren().iterator());
+        }
+        while (!open.isEmpty()) {
+            if (children.peek().hasNext()) {
+                Node child = children.peek().next();
+                events.add("enter " + child.getKind() + " " + child.getValue());
+                open.push(child);
+                children.push(child.getChildren().iterator());
+            } else {
+                Node node = open.pop();
+                children.pop();
+                events.add("exit " + node.getKind() + " " + node.getValue());
+            }
+        }
+    }
+
+    /**
+     * Parses a program with a listener that records every event.
+     *
+     * @param cursor The cursor to parse from, or null to read the program from
+     *               a new TokenBuffer.
+     */
+    private static List<String> listen(String program, ListenerCursor cursor) throws ParseException {
+        OutputController output = new OutputController(listings.resolve("out.lst").toString());
+        Parser parser = cursor == null
+                ? new Parser(new Scanner(SourceBuffer.fromText(program), null).tokenise(), output)
+                : new Parser(cursor.cursor, output);
+        List<String> events = new ArrayList<>();
+        parser.setParseListener(new ParseListener() {
+            @Override
+            public void enterNode(Node node) {
+                events.add("enter " + node.getKind() + " " + node.getValue());
+                if (cursor != null) {
+                    cursor.mostHeld[0] = Math.max(cursor.mostHeld[0], cursor.cursor.getTokens().size());
+                }
+            }
+
+            @Override
+            public void exitNode(Node node) {
+                events.add("exit " + node.getKind() + " " + node.getValue());
+            }
+
+            @Override
+            public void error(String description, int line, int col) {
+                events.add("error " + line + ":" + col + " " + description);
+            }
+        });
+        assertNull(parser.parse());
+        return events;
+    }
+
+    private static final class ListenerCursor {
+        private final TokenCursor cursor;
+        private final int[] mostHeld;
+
+        ListenerCursor(TokenCursor cursor, int[] mostHeld) {
+            this.cursor = cursor;
+            this.mostHeld = mostHeld;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.compiler.cd24.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.compiler.cd24.lexer.Scanner;
+import com.compiler.cd24.lexer.SourceBuffer;
+import com.compiler.cd24.util.Ast;
+import com.compiler.cd24.util.AstCursor;
+import com.compiler.cd24.util.NodeKind;
+import com.compiler.cd24.util.OutputController;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ParserTest class
+ *
+ * Checks the shape of the trees the Parser builds for boolean expressions, and
+ * that the stack depth does not grow with the length of one.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+class ParserTest {
+    @TempDir
+    static Path listings;
+
+    @Test
+    void nestsLogicalOperatorsToTheLeft() throws ParseException {
+        assertEquals("NBOOL(NBOOL(NLSS(NSIMV,NILIT),NAND,NGRT(NSIMV,NILIT)),NOR,NTRUE)",
+                condition("x < 1 and x > 2 or true", null));
+    }
+
+    @Test
+    void wrapsTheRestOfTheConditionInEachNot() throws ParseException {
+        assertEquals("NBOOL(NBOOL(NBOOL(NSIMV,NAND,NFALS)))", condition("not not x and false", null));
+    }
+
+    @Test
+    void parsesLongConditionsWithoutDeepRecursion() throws ParseException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            text.append("not ");
+        }
+        text.append("x");
+        for (int i = 0; i < 100_000; i++) {
+            text.append(" or x");
+        }
+        OutputController output = new OutputController(listings.resolve("out.lst").toString());
+        condition(text.toString(), output);
+        assertTrue(output.getFormattedOutput().isEmpty());
+    }
+
+    @Test
+    void reportsConditionsThatCannotStartARelation() throws ParseException {
+        OutputController output = new OutputController(listings.resolve("out.lst").toString());
+        condition(", x", output);
+        assertFalse(output.getFormattedOutput().isEmpty());
+    }
+
+    /**
+     * Parses a program whose main body is one if statement.
+     *
+     * @return The if statement's condition as kind(child,child), or the empty
+     *         string if the tree is too large to be worth writing or has no if
+     *         statement.
+     */
+    private static String condition(String condition, OutputController output) throws ParseException {
+        if (output == null) {
+            output = new OutputController(listings.resolve("out.lst").toString());
+        }
+        String text = "CD24 P main x: int begin if (" + condition + ") x = 1; end end CD24 P";
+        Parser parser = new Parser(new Scanner(SourceBuffer.fromText(text), null).tokenise(), output);
+        Ast ast = Ast.of(parser.parse());
+        if (ast.size() > 100) {
+            return "";
+        }
+        AstCursor cursor = new AstCursor(ast);
+        while (cursor.kind() != NodeKind.NIFTH) {
+            if (!cursor.next(true)) {
+                return "";
+            }
+        }
+        return shape(ast, ast.firstChild(cursor.node()));
+    }
+
+    private static String shape(Ast ast, int node) {
+        StringBuilder shape = new StringBuilder(ast.kind(node).name());
+        int child = ast.firstChild(node);
+        if (child != Ast.NONE) {
+            shape.append('(');
+            for (; child != Ast.NONE; child = ast.nextSibling(child)) {
+                shape.append(shape(ast, child));
+                if (ast.nextSibling(child) != Ast.NONE) {
+                    shape.append(',');
+                }
+            }
+            shape.append(')');
+        }
+        return shape.toString();
+    }
+}
@@ -0,0 +1,192 @@
+package com.compiler.cd24.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.compiler.cd24.lexer.Scanner;
+import com.compiler.cd24.lexer.SourceBuffer;
+import com.compiler.cd24.parser.ParseException;
+import com.compiler.cd24.parser.Parser;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * AstRoundTripTest class
+ *
+ * Checks that an Ast saved by AstWriter and read back by AstReader is the Ast
+ * that was saved, both through the reader's cursor and through toAst().
+ *
+ * It also reads src/test/resources/ast/Vet.ast, which was saved from
+ * successful/Vet.cd by the current format version. A change to the format,
+ * such as reordering NodeKind or changing how a varint is written, fails this
+ * unless AstWriter.VERSION is bumped and the file is saved again with main().
+ * Cut short or with bytes changed, the same file must give an IOException.
+ *
+ * Date: 2026-10-18
+ *
+ * @author Thomas Bandy, Benjamin Rogers
+ * @version 1.0
+ */
+class AstRoundTripTest {
+    private static final Path SAVED_SOURCE = Path.of("src/test/resources/successful/Vet.cd");
+    private static final Path SAVED = Path.of("src/test/resources/ast/Vet.ast");
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    void roundTripsTestFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(Path.of("src/test/resources"))) {
+            files = paths.filter(path -> path.toString().endsWith(".cd")).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            assertRoundTrips(SourceBuffer.fromFile(file.toString()), file.toString());
+        }
+    }
+
+    @Test
+    void roundTripsLargeProgram() throws IOException {
+        // INFO: Long lines and large literals, so positions and literals take several bytes
+        StringBuilder text = new StringBuilder("CD24 Large\nmain x: int, y: float begin\n");
+        for (int i = 0; i < 3000; i++) {
+            text.append("x = ").append(i * 7919).append("; y = y * ").append(i).append(".25; ");
+            if (i % 40 == 39) {
+                text.append('\n');
+            }
+        }
+        text.append("printline x, y; end CD24 Large\n");
+        assertRoundTrips(SourceBuffer.fromText(text), "generated program");
+    }
+
+    @Test
+    void readsSavedVersion() throws IOException {
+        NameTable names = new NameTable();
+        Ast ast = parse(SourceBuffer.fromFile(SAVED_SOURCE.toString()), names);
+        String message = "The AST format changed, bump AstWriter.VERSION and run AstRoundTripTest.main()";
+        assertEquals(dump(ast), dump(AstReader.open(SAVED).toAst(names)), message);
+        Path written = directory.resolve("saved.ast");
+        AstWriter.write(ast, written);
+        assertArrayEquals(Files.readAllBytes(SAVED), Files.readAllBytes(written), message);
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        byte[] saved = Files.readAllBytes(SAVED);
+        for (int length = 0; length < saved.length; length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(saved, length));
+            assertThrows(IOException.class, () -> new AstReader(truncated).toAst(new NameTable()),
+                    "cut to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void rejectsCorruptFileOnlyWithIOException() throws IOException {
+        byte[] saved = Files.readAllBytes(SAVED);
+        Random random = new Random(25);
+        for (int i = 0; i < 2000; i++) {
+            byte[] corrupt = saved.clone();
+            for (int j = 1 + random.nextInt(3); j > 0; j--) {
+                corrupt[random.nextInt(corrupt.length)] = (byte) random.nextInt(256);
+            }
+            try {
+                AstReader reader = new AstReader(ByteBuffer.wrap(corrupt));
+                reader.toAst(new NameTable());
+                reader.rewind();
+                while (reader.next()) {
+                    reader.kind();
+                    reader.value();
+                }
+            } catch (IOException e) {
+                // INFO: The only failure a corrupt file may cause
+            }
+        }
+    }
+
+    /**
+     * Saves Vet.ast again, after the format version has been bumped.
+     * Run from the project root.
+     */
+    public static void main(String[] args) throws IOException {
+        directory = Files.createTempDirectory("ast");
+        Files.createDirectories(SAVED.getParent());
+        AstWriter.write(parse(SourceBuffer.fromFile(SAVED_SOURCE.toString()), new NameTable()), SAVED);
+    }
+
+    private static void assertRoundTrips(SourceBuffer source, String name) throws IOException {
+        NameTable names = new NameTable();
+        Ast ast = parse(source, names);
+        if (ast == null) {
+            return;
+        }
+        Path file = directory.resolve("roundtrip.ast");
+        AstWriter.write(ast, file);
+        AstReader reader = AstReader.open(file);
+        assertEquals(ast.size(), reader.size(), name);
+
+        StringBuilder expected = new StringBuilder();
+        AstCursor cursor = new AstCursor(ast);
+        do {
+            int node = cursor.node();
+            expected.append(node).append(' ').append(cursor.depth()).append(' ').append(ast.kind(node)).append(' ')
+                    .append(ast.value(node)).append(' ').append(ast.nameId(node) != NameTable.NO_NAME).append(' ')
+                    .append(ast.line(node)).append(':').append(ast.col(node)).append(' ')
+                    .append(ast.integerValue(node)).append(' ').append(ast.childCount(node)).append('\n');
+        } while (cursor.next(true));
+        StringBuilder actual = new StringBuilder();
+        while (reader.next()) {
+            actual.append(reader.index()).append(' ').append(reader.depth()).append(' ').append(reader.kind())
+                    .append(' ').append(reader.value()).append(' ').append(reader.isName()).append(' ')
+                    .append(reader.line()).append(':').append(reader.col()).append(' ')
+                    .append(reader.integerValue()).append(' ').append(reader.childCount()).append('\n');
+        }
+        assertEquals(expected.toString(), actual.toString(), name);
+        assertEquals(dump(ast), dump(reader.toAst(names)), name);
+    }
+
+    /**
+     * @return The tree parsed from a source, or null if it could not be parsed.
+     */
+    private static Ast parse(SourceBuffer source, NameTable names) {
+        OutputController output = new OutputController(directory.resolve("out.lst").toString());
+        Parser parser = new Parser(new Scanner(source, null).tokenise(), output);
+        try {
+            Node root = parser.parse();
+            if (root == null) {
+                return null;
+            }
+            Ast ast = Ast.of(root);
+            // INFO: Read the names into a table that gives them the parser's ids
+            for (int i = 0; i < parser.getNameTable().size(); i++) {
+                names.intern(parser.getNameTable().name(i));
+            }
+            return ast;
+        } catch (ParseException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Every field of every node, with its parent and siblings.
+     */
+    private static String dump(Ast ast) {
+        StringBuilder result = new StringBuilder();
+        for (int node = 0; node < ast.size(); node++) {
+            result.append(node).append(' ').append(ast.kind(node)).append(' ').append(ast.value(node)).append(' ')
+                    .append(ast.nameId(node)).append(' ').append(ast.line(node)).append(':').append(ast.col(node))
+                    .append(' ').append(ast.integerValue(node)).append(' ').append(ast.childCount(node)).append(' ')
+                    .append(ast.firstChild(node)).append(' ').append(ast.nextSibling(node)).append('\n');
+        }
+        return result.toString();
+    }
+}